@@ -1,5 +1,6 @@
 package ru.practicum.category.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
@@ -25,8 +26,11 @@ public class PublicCategoryController {
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<CategoryDto> getAllCategories(@RequestParam(defaultValue = "0") int from,
-                                              @RequestParam(defaultValue = "10") int size) {
-        return categoryPublicService.getAllCategories(from, size);
+    public List<CategoryDto> getAllCategories(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "0") int from,
+                                              @RequestParam(defaultValue = "10") int size,
+                                              @RequestParam(defaultValue = "false") boolean withTotal,
+                                              HttpServletResponse response) {
+        return categoryPublicService.getAllCategories(cursor, from, size).writeTo(response, withTotal);
     }
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package ru.practicum.category.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.category.model.Category;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Boolean existsByName(String name);
+
+    Slice<Category> findByIdGreaterThan(Long id, Pageable pageable);
 }
\ No newline at end of file
@@ -1,8 +1,9 @@
 package ru.practicum.category.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.category.dto.CategoryDto;
@@ -11,8 +12,8 @@ import ru.practicum.category.model.Category;
 import ru.practicum.category.repository.CategoryRepository;
 import ru.practicum.category.service.interfaces.CategoryPublicService;
 import ru.practicum.exception.NotFoundException;
-
-import java.util.List;
+import ru.practicum.util.CursorPage;
+import ru.practicum.util.PageCursor;
 
 @Service
 @Transactional(readOnly = true)
@@ -30,12 +31,13 @@ public class CategoryPublicServiceImpl implements CategoryPublicService {
     }
 
     @Override
-    public List<CategoryDto> getAllCategories(int from, int size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<Category> categories = categoryRepository.findAll(pageable).getContent();
-
-        return categories.stream()
-                .map(CategoryMapper::toCategoryDto)
-                .toList();
+    public CursorPage<CategoryDto> getAllCategories(String cursor, int from, int size) {
+        Pageable pageable = PageCursor.pageRequest(cursor, from, size, Sort.by("id"));
+        Long afterId = cursor != null ? PageCursor.decode(cursor).id() : 0L;
+        Slice<Category> categories = categoryRepository.findByIdGreaterThan(afterId, pageable);
+
+        return CursorPage.of(categories, categories.map(CategoryMapper::toCategoryDto).getContent(),
+                category -> PageCursor.ofId(category.getId()))
+                .withTotalCount(categoryRepository::count);
     }
 }
\ No newline at end of file
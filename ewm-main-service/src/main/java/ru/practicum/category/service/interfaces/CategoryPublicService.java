@@ -1,11 +1,10 @@
 package ru.practicum.category.service.interfaces;
 
 import ru.practicum.category.dto.CategoryDto;
-
-import java.util.List;
+import ru.practicum.util.CursorPage;
 
 public interface CategoryPublicService {
     CategoryDto getCategoryById(Long catId);
 
-    List<CategoryDto> getAllCategories(int from, int size);
+    CursorPage<CategoryDto> getAllCategories(String cursor, int from, int size);
 }
\ No newline at end of file
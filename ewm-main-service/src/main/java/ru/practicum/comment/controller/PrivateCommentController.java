@@ -1,5 +1,6 @@
 package ru.practicum.comment.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -46,8 +47,11 @@ public class PrivateCommentController {
     @ResponseStatus(HttpStatus.OK)
     public List<CommentDto> getAllCommentsOfUserByEvent(@PathVariable Long userId,
                                                         @PathVariable Long eventId,
+                                                        @RequestParam(required = false) String cursor,
                                                         @RequestParam(required = false, defaultValue = "0") int from,
-                                                        @RequestParam(required = false, defaultValue = "10") int size) {
-        return commentService.getAllCommentsOfUserByEvent(userId, eventId, from, size);
+                                                        @RequestParam(required = false, defaultValue = "10") int size,
+                                                        @RequestParam(defaultValue = "false") boolean withTotal,
+                                                        HttpServletResponse response) {
+        return commentService.getAllCommentsOfUserByEvent(userId, eventId, cursor, from, size).writeTo(response, withTotal);
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package ru.practicum.comment.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -18,9 +19,12 @@ public class PublicCommentController {
     @GetMapping("/events/{eventId}/comments")
     @ResponseStatus(HttpStatus.OK)
     public List<CommentDto> getAllCommentsOfEvent(@PathVariable Long eventId,
+                                                  @RequestParam(required = false) String cursor,
                                                   @RequestParam(required = false, defaultValue = "0") int from,
-                                                  @RequestParam(required = false, defaultValue = "10") int size) {
-        return commentService.getAllCommentsOfEvent(eventId, from, size);
+                                                  @RequestParam(required = false, defaultValue = "10") int size,
+                                                  @RequestParam(defaultValue = "false") boolean withTotal,
+                                                  HttpServletResponse response) {
+        return commentService.getAllCommentsOfEvent(eventId, cursor, from, size).writeTo(response, withTotal);
     }
 
     @GetMapping("/comments/{commentId}")
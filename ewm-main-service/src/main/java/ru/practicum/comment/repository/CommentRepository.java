@@ -1,21 +1,47 @@
 package ru.practicum.comment.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.comment.model.Comment;
 import ru.practicum.comment.model.enums.CommentState;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByEventIdAndState(Long eventId, CommentState state, Pageable pageable);
+    String BEFORE_CURSOR = """
+        (CAST(:beforeCreated AS DATE) IS NULL
+            OR c.created < :beforeCreated OR (c.created = :beforeCreated AND c.id < :beforeId))
+    """;
+
+    @Query("SELECT c FROM Comment c WHERE c.event.id = :eventId AND c.state = :state AND " + BEFORE_CURSOR
+            + " ORDER BY c.created DESC, c.id DESC")
+    Slice<Comment> findEventComments(@Param("eventId") Long eventId,
+                                     @Param("state") CommentState state,
+                                     @Param("beforeCreated") LocalDateTime beforeCreated,
+                                     @Param("beforeId") Long beforeId,
+                                     Pageable pageable);
+
+    long countByEventIdAndState(Long eventId, CommentState state);
 
     Optional<Comment> findByIdAndStateNot(Long commentId, CommentState state);
 
-    List<Comment> findAllByAuthorIdAndEventIdAndState(Long userId, Long eventId, CommentState state, Pageable pageable);
+    @Query("SELECT c FROM Comment c WHERE c.author.id = :userId AND c.event.id = :eventId AND c.state = :state AND "
+            + BEFORE_CURSOR + " ORDER BY c.created DESC, c.id DESC")
+    Slice<Comment> findEventCommentsOfAuthor(@Param("userId") Long userId,
+                                             @Param("eventId") Long eventId,
+                                             @Param("state") CommentState state,
+                                             @Param("beforeCreated") LocalDateTime beforeCreated,
+                                             @Param("beforeId") Long beforeId,
+                                             Pageable pageable);
+
+    long countByAuthorIdAndEventIdAndState(Long userId, Long eventId, CommentState state);
 
     void deleteAllByEventId(Long eventId);
 
     List<Comment> findAllByAuthorId(Long userId);
-}
\ No newline at end of file
+}
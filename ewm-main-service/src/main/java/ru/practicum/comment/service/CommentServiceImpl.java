@@ -1,9 +1,8 @@
 package ru.practicum.comment.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.comment.dto.CommentDto;
@@ -20,8 +19,8 @@ import ru.practicum.exception.NotFoundException;
 import ru.practicum.exception.ValidationException;
 import ru.practicum.user.model.User;
 import ru.practicum.user.repository.UserRepository;
-
-import java.util.List;
+import ru.practicum.util.CursorPage;
+import ru.practicum.util.PageCursor;
 
 @Service
 @RequiredArgsConstructor
@@ -32,21 +31,20 @@ public class CommentServiceImpl implements CommentService {
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
 
-    private static final Sort SORT = Sort.by("created").descending();
-
     @Override
     @Transactional(readOnly = true)
-    public List<CommentDto> getAllCommentsOfEvent(Long eventId, int from, int size) {
-        Pageable pageable = PageRequest.of(from / size, size, SORT);
+    public CursorPage<CommentDto> getAllCommentsOfEvent(Long eventId, String cursor, int from, int size) {
+        Pageable pageable = PageCursor.pageRequest(cursor, from, size);
+        PageCursor before = cursor != null ? PageCursor.decode(cursor) : null;
 
         if (!eventRepository.existsById(eventId)) {
             throw new NotFoundException("Событие с id = " + eventId + " не найдено.");
         }
-        List<Comment> comments = commentRepository.findAllByEventIdAndState(eventId, CommentState.APPROVED, pageable);
+        Slice<Comment> comments = commentRepository.findEventComments(eventId, CommentState.APPROVED,
+                before != null ? before.dateTimeKey() : null, before != null ? before.id() : null, pageable);
 
-        return comments.stream()
-                .map(CommentMapper::toCommentDto)
-                .toList();
+        return CursorPage.of(comments, comments.map(CommentMapper::toCommentDto).getContent(), CommentServiceImpl::cursorOf)
+                .withTotalCount(() -> commentRepository.countByEventIdAndState(eventId, CommentState.APPROVED));
     }
 
     @Override
@@ -114,8 +112,9 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<CommentDto> getAllCommentsOfUserByEvent(Long userId, Long eventId, int from, int size) {
-        Pageable pageable = PageRequest.of(from / size, size, SORT);
+    public CursorPage<CommentDto> getAllCommentsOfUserByEvent(Long userId, Long eventId, String cursor, int from, int size) {
+        Pageable pageable = PageCursor.pageRequest(cursor, from, size);
+        PageCursor before = cursor != null ? PageCursor.decode(cursor) : null;
 
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("Пользователь с id = " + userId + " не найден.");
@@ -125,11 +124,12 @@ public class CommentServiceImpl implements CommentService {
             throw new NotFoundException("Событие с id = " + eventId + " не найдено.");
         }
 
-        List<Comment> comments = commentRepository.findAllByAuthorIdAndEventIdAndState(userId, eventId, CommentState.APPROVED, pageable);
+        Slice<Comment> comments = commentRepository.findEventCommentsOfAuthor(userId, eventId, CommentState.APPROVED,
+                before != null ? before.dateTimeKey() : null, before != null ? before.id() : null, pageable);
 
-        return comments.stream()
-                .map(CommentMapper::toCommentDto)
-                .toList();
+        return CursorPage.of(comments, comments.map(CommentMapper::toCommentDto).getContent(), CommentServiceImpl::cursorOf)
+                .withTotalCount(() -> commentRepository.countByAuthorIdAndEventIdAndState(userId, eventId,
+                        CommentState.APPROVED));
     }
 
     @Override
@@ -166,4 +166,8 @@ public class CommentServiceImpl implements CommentService {
 
         return CommentMapper.toCommentDto((commentRepository.save(comment)));
     }
+
+    private static PageCursor cursorOf(Comment comment) {
+        return PageCursor.of(comment.getCreated(), comment.getId());
+    }
 }
\ No newline at end of file
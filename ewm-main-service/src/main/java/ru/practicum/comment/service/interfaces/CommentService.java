@@ -3,11 +3,10 @@ package ru.practicum.comment.service.interfaces;
 import ru.practicum.comment.dto.CommentDto;
 import ru.practicum.comment.dto.NewCommentDto;
 import ru.practicum.comment.model.enums.CommentState;
-
-import java.util.List;
+import ru.practicum.util.CursorPage;
 
 public interface CommentService {
-    List<CommentDto> getAllCommentsOfEvent(Long eventId, int from, int size);
+    CursorPage<CommentDto> getAllCommentsOfEvent(Long eventId, String cursor, int from, int size);
 
     CommentDto getCommentById(Long commentId);
 
@@ -17,7 +16,7 @@ public interface CommentService {
 
     void deleteComment(Long userId, Long commentId);
 
-    List<CommentDto> getAllCommentsOfUserByEvent(Long userId, Long eventId, int from, int size);
+    CursorPage<CommentDto> getAllCommentsOfUserByEvent(Long userId, Long eventId, String cursor, int from, int size);
 
     void deleteAllCommentByAdmin(Long eventId);
 
@@ -1,5 +1,6 @@
 package ru.practicum.compilation.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
@@ -20,9 +21,12 @@ public class PublicCompilationsController {
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     public List<CompilationDto> getAllCompilations(@RequestParam(required = false) Boolean pinned,
+                                                   @RequestParam(required = false) String cursor,
                                                    @RequestParam(defaultValue = "0") int from,
-                                                   @RequestParam(defaultValue = "10") int size) {
-        return publicCompilationsService.getAllCompilations(pinned, from, size);
+                                                   @RequestParam(defaultValue = "10") int size,
+                                                   @RequestParam(defaultValue = "false") boolean withTotal,
+                                                   HttpServletResponse response) {
+        return publicCompilationsService.getAllCompilations(pinned, cursor, from, size).writeTo(response, withTotal);
     }
 
     @GetMapping("/{compId}")
@@ -1,12 +1,16 @@
 package ru.practicum.compilation.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.compilation.model.Compilation;
 
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
 
-    Page<Compilation> findByPinned(Boolean pinned, Pageable pageable);
+    Slice<Compilation> findByIdGreaterThan(Long id, Pageable pageable);
+
+    Slice<Compilation> findByPinnedAndIdGreaterThan(Boolean pinned, Long id, Pageable pageable);
+
+    long countByPinned(Boolean pinned);
 
 }
\ No newline at end of file
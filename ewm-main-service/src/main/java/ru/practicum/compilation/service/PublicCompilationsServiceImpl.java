@@ -1,8 +1,8 @@
 package ru.practicum.compilation.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +15,8 @@ import ru.practicum.event.dto.EventShortDto;
 import ru.practicum.event.mapper.EventMapper;
 import ru.practicum.event.model.Event;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.util.CursorPage;
+import ru.practicum.util.PageCursor;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -27,17 +29,14 @@ public class PublicCompilationsServiceImpl implements PublicCompilationsService
     private final CompilationRepository compilationRepository;
 
     @Override
-    public List<CompilationDto> getAllCompilations(Boolean pinned, int from, int size) {
-        Pageable pageable = PageRequest.of(from / size, size,Sort.by("id").ascending());
-        List<Compilation> compilations;
+    public CursorPage<CompilationDto> getAllCompilations(Boolean pinned, String cursor, int from, int size) {
+        Pageable pageable = PageCursor.pageRequest(cursor, from, size, Sort.by("id").ascending());
+        Long afterId = cursor != null ? PageCursor.decode(cursor).id() : 0L;
+        Slice<Compilation> compilations;
         if (pinned != null) {
-            compilations = compilationRepository.findByPinned(pinned, pageable).getContent();
+            compilations = compilationRepository.findByPinnedAndIdGreaterThan(pinned, afterId, pageable);
         } else {
-            compilations = compilationRepository.findAll(pageable).getContent();
-        }
-
-        if (compilations.isEmpty()) {
-            return new ArrayList<>();
+            compilations = compilationRepository.findByIdGreaterThan(afterId, pageable);
         }
 
         List<CompilationDto> compilationDtoList = new ArrayList<>();
@@ -50,7 +49,10 @@ public class PublicCompilationsServiceImpl implements PublicCompilationsService
             compilationDtoList.add(compilationDto);
         }
 
-        return compilationDtoList;
+        return CursorPage.of(compilations, compilationDtoList, compilation -> PageCursor.ofId(compilation.getId()))
+                .withTotalCount(() -> pinned != null
+                        ? compilationRepository.countByPinned(pinned)
+                        : compilationRepository.count());
     }
 
     @Override
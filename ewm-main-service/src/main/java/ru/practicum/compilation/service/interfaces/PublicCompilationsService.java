@@ -1,12 +1,11 @@
 package ru.practicum.compilation.service.interfaces;
 
 import ru.practicum.compilation.dto.CompilationDto;
-
-import java.util.List;
+import ru.practicum.util.CursorPage;
 
 public interface PublicCompilationsService {
 
-    List<CompilationDto> getAllCompilations(Boolean pinned, int from, int size);
+    CursorPage<CompilationDto> getAllCompilations(Boolean pinned, String cursor, int from, int size);
 
     CompilationDto getCompilationById(Long compId);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package ru.practicum.event.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -27,9 +28,13 @@ public class AdminEventController {
             @RequestParam(required = false) List<Long> categories,
             @RequestParam(required = false) String rangeStart,
             @RequestParam(required = false) String rangeEnd,
+            @RequestParam(required = false) String cursor,
             @RequestParam(required = false, defaultValue = "0") int from,
-            @RequestParam(required = false, defaultValue = "10") int size) {
-        return adminEventService.getAllEvents(users, states, categories, rangeStart, rangeEnd, from, size);
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            HttpServletResponse response) {
+        return adminEventService.getAllEvents(users, states, categories, rangeStart, rangeEnd, cursor, from, size)
+                .writeTo(response, withTotal);
     }
 
     @PatchMapping("/{eventId}")
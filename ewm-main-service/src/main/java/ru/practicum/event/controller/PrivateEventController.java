@@ -1,5 +1,6 @@
 package ru.practicum.event.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -27,9 +28,12 @@ public class PrivateEventController {
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     public List<EventShortDto> getAllEvents(@PathVariable Long userId,
+                                            @RequestParam(required = false) String cursor,
                                             @RequestParam(defaultValue = "0") int from,
-                                            @RequestParam(defaultValue = "10") int size) {
-        return privateEventService.getAllEvents(userId, from, size);
+                                            @RequestParam(defaultValue = "10") int size,
+                                            @RequestParam(defaultValue = "false") boolean withTotal,
+                                            HttpServletResponse response) {
+        return privateEventService.getAllEvents(userId, cursor, from, size).writeTo(response, withTotal);
     }
 
     @PostMapping
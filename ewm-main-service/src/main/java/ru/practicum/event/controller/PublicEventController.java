@@ -1,6 +1,7 @@
 package ru.practicum.event.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
@@ -29,11 +30,14 @@ public class PublicEventController {
             @RequestParam(required = false) String rangeEnd,
             @RequestParam(defaultValue = "false") boolean onlyAvailable,
             @RequestParam(required = false) Sort sort,
+            @RequestParam(required = false) String cursor,
             @RequestParam(required = false, defaultValue = "0") int from,
             @RequestParam(required = false, defaultValue = "10") int size,
-            HttpServletRequest request) {
-        return publicEventService.getAllEvents(text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size,
-                request);
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        return publicEventService.getAllEvents(text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, cursor,
+                from, size, request).writeTo(response, withTotal);
     }
 
     @GetMapping("/{eventId}")
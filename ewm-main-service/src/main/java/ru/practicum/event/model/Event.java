@@ -13,8 +13,15 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Table(name = "events")
+@NamedEntityGraph(name = Event.DETAILS_GRAPH, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("initiator"),
+        @NamedAttributeNode("location")
+})
 public class Event {
 
+    public static final String DETAILS_GRAPH = "Event.details";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -65,6 +72,6 @@ public class Event {
     @Column(name = "title")
     private String title;
 
-    @Transient
-    private Integer views;
+    @Column(name = "views", insertable = false, updatable = false)
+    private Integer views = 0;
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package ru.practicum.event.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.event.model.Event;
@@ -10,38 +13,95 @@ import ru.practicum.event.model.enums.State;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event>,
+        EventSliceRepository {
 
-    Page<Event> findByInitiatorIdInAndStateInAndCategoryIdInAndEventDateBetween(
-            List<Long> userIds,
-            List<State> states,
-            List<Long> categoryIds,
-            LocalDateTime start,
-            LocalDateTime end,
-            Pageable pageable
-    );
+    @EntityGraph(Event.DETAILS_GRAPH)
+    @Override
+    Optional<Event> findById(Long id);
 
-    @Query("""
-        SELECT e FROM Event e WHERE (:text IS NULL OR (e.annotation ILIKE %:text% OR e.description ILIKE %:text%))
+    String SEARCH_CONDITIONS = """
+        (:text IS NULL OR event_text_match(e.annotation, e.description, :text))
         AND (:categories IS NULL OR e.category.id IN :categories)
         AND (:paid IS NULL OR e.paid = :paid)
         AND (e.eventDate >= :start)
         AND (CAST(:end AS DATE) IS NULL OR e.eventDate <= :end)
         AND (:onlyAvailable = false OR e.participantLimit = 0 OR e.confirmedRequests <= e.participantLimit)
-        ORDER BY e.eventDate DESC
+    """;
+
+    @EntityGraph(Event.DETAILS_GRAPH)
+    @Query("SELECT e FROM Event e WHERE " + SEARCH_CONDITIONS + """
+        AND (CAST(:afterDate AS DATE) IS NULL
+            OR e.eventDate < :afterDate OR (e.eventDate = :afterDate AND e.id < :afterId))
+        ORDER BY e.eventDate DESC, e.id DESC
+    """)
+    Slice<Event> searchEvents(@Param("text") String text,
+                              @Param("categories") List<Long> categories,
+                              @Param("paid") Boolean paid,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end,
+                              @Param("onlyAvailable") boolean onlyAvailable,
+                              @Param("afterDate") LocalDateTime afterDate,
+                              @Param("afterId") Long afterId,
+                              Pageable pageable);
+
+    @Query("SELECT COUNT(e) FROM Event e WHERE " + SEARCH_CONDITIONS)
+    long countEvents(@Param("text") String text,
+                     @Param("categories") List<Long> categories,
+                     @Param("paid") Boolean paid,
+                     @Param("start") LocalDateTime start,
+                     @Param("end") LocalDateTime end,
+                     @Param("onlyAvailable") boolean onlyAvailable);
+
+    @EntityGraph(Event.DETAILS_GRAPH)
+    @Query("SELECT e FROM Event e WHERE " + SEARCH_CONDITIONS + """
+        AND (:afterRank IS NULL OR event_text_rank(e.annotation, e.description, :text) < :afterRank
+            OR (event_text_rank(e.annotation, e.description, :text) = :afterRank AND e.id < :afterId))
+        ORDER BY event_text_rank(e.annotation, e.description, :text) DESC, e.id DESC
+    """)
+    Slice<Event> searchEventsByRelevance(@Param("text") String text,
+                                         @Param("categories") List<Long> categories,
+                                         @Param("paid") Boolean paid,
+                                         @Param("start") LocalDateTime start,
+                                         @Param("end") LocalDateTime end,
+                                         @Param("onlyAvailable") boolean onlyAvailable,
+                                         @Param("afterRank") Double afterRank,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    @Query("SELECT event_text_rank(e.annotation, e.description, :text) FROM Event e WHERE e.id = :id")
+    Double findTextRank(@Param("text") String text, @Param("id") Long id);
+
+    @EntityGraph(Event.DETAILS_GRAPH)
+    @Query("SELECT e FROM Event e WHERE " + SEARCH_CONDITIONS + """
+        AND (:afterViews IS NULL OR e.views < :afterViews OR (e.views = :afterViews AND e.id < :afterId))
+        ORDER BY e.views DESC, e.id DESC
     """)
-    Page<Event> searchEvents(@Param("text") String text,
-                             @Param("categories") List<Long> categories,
-                             @Param("paid") Boolean paid,
-                             @Param("start") LocalDateTime start,
-                             @Param("end") LocalDateTime end,
-                             @Param("onlyAvailable") boolean onlyAvailable,
-                             Pageable pageable);
+    Slice<Event> searchEventsByViews(@Param("text") String text,
+                                     @Param("categories") List<Long> categories,
+                                     @Param("paid") Boolean paid,
+                                     @Param("start") LocalDateTime start,
+                                     @Param("end") LocalDateTime end,
+                                     @Param("onlyAvailable") boolean onlyAvailable,
+                                     @Param("afterViews") Integer afterViews,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
 
+    @EntityGraph(Event.DETAILS_GRAPH)
     List<Event> findByIdIn(List<Long> ids);
 
-    Page<Event> findByInitiatorId(Long initiatorId, Pageable pageable);
+    List<Event> findByStateAndIdGreaterThanOrderByIdAsc(State state, Long id, Pageable pageable);
+
+    @EntityGraph(Event.DETAILS_GRAPH)
+    Slice<Event> findByInitiatorIdAndIdGreaterThan(Long initiatorId, Long id, Pageable pageable);
+
+    long countByInitiatorId(Long initiatorId);
 
     Boolean existsByCategoryId(Long catId);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.views = :views WHERE e.id = :id")
+    int updateViews(@Param("id") Long id, @Param("views") Integer views);
 }
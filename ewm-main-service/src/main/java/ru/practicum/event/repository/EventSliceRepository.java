@@ -0,0 +1,10 @@
+package ru.practicum.event.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.event.model.Event;
+
+public interface EventSliceRepository {
+    Slice<Event> findSlice(Specification<Event> specification, Pageable pageable);
+}
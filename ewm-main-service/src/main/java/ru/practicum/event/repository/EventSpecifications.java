@@ -0,0 +1,60 @@
+package ru.practicum.event.repository;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.enums.State;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Filters for the admin event search and its cursor. A factory returns {@code null} for an absent filter, which
+ * {@link Specification#where} and {@link Specification#and} skip, so the query only carries the predicates given.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class EventSpecifications {
+
+    public static Specification<Event> idGreaterThan(Long id) {
+        if (id == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    public static Specification<Event> initiatorIn(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> root.get("initiator").get("id").in(userIds);
+    }
+
+    public static Specification<Event> stateIn(Collection<State> states) {
+        if (states == null || states.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> root.get("state").in(states);
+    }
+
+    public static Specification<Event> categoryIn(Collection<Long> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> root.get("category").get("id").in(categoryIds);
+    }
+
+    public static Specification<Event> eventDateFrom(LocalDateTime start) {
+        if (start == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("eventDate"), start);
+    }
+
+    public static Specification<Event> eventDateTo(LocalDateTime end) {
+        if (end == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("eventDate"), end);
+    }
+}
@@ -0,0 +1,350 @@
+package ru.practicum.event.search;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.enums.Sort;
+import ru.practicum.event.model.enums.State;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.util.PageCursor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-memory inverted index over published events, used for public text search when
+ * {@code ewm.search.engine=MEMORY}.
+ * <p>
+ * Every indexed version of an event gets a new document number. Words of the title, annotation and description map
+ * to {@link PostingList}s of those numbers, category and paid flag are kept as bitsets. Updates only append, the
+ * previous document of an edited event is cleared from the live set and the index is rebuilt from the database
+ * once such dead documents outnumber the live ones. Query words are matched as prefixes and all of them must occur.
+ * <p>
+ * A rebuild loads the new index without holding the lock, so searches and updates go on meanwhile. Updates committed
+ * during the rebuild are applied to the current index and queued, then replayed onto the new one just before it is
+ * swapped in.
+ */
+@Slf4j
+@Component
+public class EventSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int ANNOTATION_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int WARM_UP_PAGE_SIZE = 1000;
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Index index = new Index();
+    private List<Document> pendingUpdates;
+
+    public EventSearchIndex(EventRepository eventRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${ewm.search.engine:DATABASE}") SearchEngine engine) {
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = engine == SearchEngine.MEMORY;
+    }
+
+    @PostConstruct
+    public synchronized void warmUp() {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingUpdates = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index rebuilt = new Index();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                long lastId = 0;
+                List<Event> events;
+                do {
+                    events = eventRepository.findByStateAndIdGreaterThanOrderByIdAsc(State.PUBLISHED, lastId,
+                            PageRequest.of(0, WARM_UP_PAGE_SIZE));
+                    for (Event event : events) {
+                        rebuilt.add(Document.of(event));
+                        lastId = event.getId();
+                    }
+                } while (events.size() == WARM_UP_PAGE_SIZE);
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingUpdates = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingUpdates.forEach(rebuilt::add);
+            pendingUpdates = null;
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс событий загружен: {} событий", rebuilt.docsByEvent.size());
+    }
+
+    @Scheduled(fixedDelayString = "${ewm.search.compaction-interval-ms:600000}")
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+
+        boolean sparse;
+        lock.readLock().lock();
+        try {
+            sparse = index.isSparse();
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (sparse) {
+            warmUp();
+        }
+    }
+
+    public boolean supports(String text, boolean onlyAvailable, Sort sort) {
+        return enabled && text != null && !onlyAvailable && sort != Sort.VIEWS;
+    }
+
+    /**
+     * Re-indexes the event once the current transaction commits; unpublished events are removed from the index.
+     */
+    public void indexAfterCommit(Event event) {
+        if (!enabled) {
+            return;
+        }
+
+        Document document = Document.of(event);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lock.writeLock().lock();
+                try {
+                    index.add(document);
+                    if (pendingUpdates != null) {
+                        pendingUpdates.add(document);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns ids of the requested page of published events matching every word of {@code text}, ordered by
+     * relevance or, for {@link Sort#EVENT_DATE}, by event date descending, together with the number of all matches.
+     * The page starts right after {@code after} when it is given, at {@code from} otherwise.
+     */
+    public SearchResult search(String text, List<Long> categories, Boolean paid, LocalDateTime start,
+                               LocalDateTime end, Sort sort, PageCursor after, int from, int size) {
+        Set<String> words = tokenize(text);
+        if (words.isEmpty()) {
+            return new SearchResult(List.of(), 0, null);
+        }
+
+        lock.readLock().lock();
+        try {
+            return index.search(words, categories, paid, start, end, sort, after, from, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void addWords(Map<String, Integer> weights, String text, int weight) {
+        for (String word : tokenize(text)) {
+            weights.merge(word, weight, Integer::sum);
+        }
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (text == null) {
+            return words;
+        }
+
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        int wordStart = -1;
+        for (int i = 0; i <= lowerCase.length(); i++) {
+            boolean letter = i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i));
+            if (letter && wordStart < 0) {
+                wordStart = i;
+            } else if (!letter && wordStart >= 0) {
+                words.add(lowerCase.substring(wordStart, i));
+                wordStart = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * @param next position of the last event of the page, {@code null} when no matches follow it
+     */
+    public record SearchResult(List<Long> eventIds, long total, PageCursor next) {
+    }
+
+    private static final class Index {
+        private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+        private final Map<Long, Integer> docsByEvent = new HashMap<>();
+        private final Map<Long, BitSet> categoryDocs = new HashMap<>();
+        private final BitSet liveDocs = new BitSet();
+        private final BitSet paidDocs = new BitSet();
+        private long[] eventIds = new long[1024];
+        private long[] eventDates = new long[1024];
+        private int docCount;
+
+        private boolean isSparse() {
+            int live = liveDocs.cardinality();
+            return docCount - live > live;
+        }
+
+        private SearchResult search(Set<String> words, List<Long> categories, Boolean paid, LocalDateTime start,
+                                    LocalDateTime end, Sort sort, PageCursor after, int from, int size) {
+            int[] scores = new int[docCount];
+            BitSet matched = null;
+            for (String word : words) {
+                BitSet wordDocs = new BitSet(docCount);
+                for (PostingList postingList : postings.subMap(word, true, word + Character.MAX_VALUE, true).values()) {
+                    postingList.collect(wordDocs, scores);
+                }
+                if (matched == null) {
+                    matched = wordDocs;
+                } else {
+                    matched.and(wordDocs);
+                }
+            }
+
+            matched.and(liveDocs);
+            if (paid != null) {
+                if (paid) {
+                    matched.and(paidDocs);
+                } else {
+                    matched.andNot(paidDocs);
+                }
+            }
+            if (categories != null) {
+                BitSet categoryFilter = new BitSet(docCount);
+                for (Long categoryId : categories) {
+                    BitSet docs = categoryDocs.get(categoryId);
+                    if (docs != null) {
+                        categoryFilter.or(docs);
+                    }
+                }
+                matched.and(categoryFilter);
+            }
+
+            long startTime = start.toEpochSecond(ZoneOffset.UTC);
+            long endTime = end != null ? end.toEpochSecond(ZoneOffset.UTC) : Long.MAX_VALUE;
+            List<Integer> candidates = new ArrayList<>();
+            for (int doc = matched.nextSetBit(0); doc >= 0; doc = matched.nextSetBit(doc + 1)) {
+                if (eventDates[doc] >= startTime && eventDates[doc] <= endTime) {
+                    candidates.add(doc);
+                }
+            }
+
+            boolean byDate = sort == Sort.EVENT_DATE;
+            ToLongFunction<Integer> key = doc -> byDate ? eventDates[doc] : scores[doc];
+            long afterKey = after == null ? 0
+                    : byDate ? after.dateTimeKey().toEpochSecond(ZoneOffset.UTC) : after.intKey();
+
+            Comparator<Integer> order = Comparator.comparingLong(key)
+                    .thenComparingLong(doc -> eventIds[doc])
+                    .reversed();
+            List<Integer> page = candidates.stream()
+                    .filter(doc -> after == null || key.applyAsLong(doc) < afterKey
+                            || key.applyAsLong(doc) == afterKey && eventIds[doc] < after.id())
+                    .sorted(order)
+                    .skip(after != null ? 0 : from)
+                    .limit(size + 1L)
+                    .toList();
+
+            PageCursor next = null;
+            if (page.size() > size) {
+                page = page.subList(0, size);
+                int last = page.getLast();
+                Object lastKey = byDate
+                        ? LocalDateTime.ofEpochSecond(eventDates[last], 0, ZoneOffset.UTC)
+                        : scores[last];
+                next = PageCursor.of(lastKey, eventIds[last]);
+            }
+            return new SearchResult(page.stream().map(doc -> eventIds[doc]).toList(), candidates.size(), next);
+        }
+
+        private void add(Document document) {
+            Integer previous = docsByEvent.remove(document.id());
+            if (previous != null) {
+                liveDocs.clear(previous);
+            }
+            if (document.state() != State.PUBLISHED) {
+                return;
+            }
+
+            int doc = docCount++;
+            if (doc == eventIds.length) {
+                eventIds = Arrays.copyOf(eventIds, doc * 2);
+                eventDates = Arrays.copyOf(eventDates, doc * 2);
+            }
+            eventIds[doc] = document.id();
+            eventDates[doc] = document.eventDate().toEpochSecond(ZoneOffset.UTC);
+            docsByEvent.put(document.id(), doc);
+            liveDocs.set(doc);
+            if (Boolean.TRUE.equals(document.paid())) {
+                paidDocs.set(doc);
+            }
+            categoryDocs.computeIfAbsent(document.categoryId(), id -> new BitSet()).set(doc);
+
+            Map<String, Integer> weights = new LinkedHashMap<>();
+            addWords(weights, document.title(), TITLE_WEIGHT);
+            addWords(weights, document.annotation(), ANNOTATION_WEIGHT);
+            addWords(weights, document.description(), DESCRIPTION_WEIGHT);
+            weights.forEach((word, weight) -> postings.computeIfAbsent(word, w -> new PostingList()).add(doc, weight));
+        }
+    }
+
+    private record Document(Long id, State state, Long categoryId, Boolean paid, LocalDateTime eventDate,
+                            String title, String annotation, String description) {
+
+        private static Document of(Event event) {
+            return new Document(event.getId(), event.getState(), event.getCategory().getId(), event.getPaid(),
+                    event.getEventDate(), event.getTitle(), event.getAnnotation(), event.getDescription());
+        }
+    }
+}
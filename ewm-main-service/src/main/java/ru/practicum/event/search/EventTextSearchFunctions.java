@@ -0,0 +1,47 @@
+package ru.practicum.event.search;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code event_text_match(annotation, description, text)} and {@code event_text_rank(...)} for JPQL.
+ * <p>
+ * On PostgreSQL they evaluate a weighted {@code tsvector} built exactly like the GIN index in
+ * {@code schema-postgresql.sql}, with every word of the text matched as a prefix. Other databases (H2) fall back to
+ * a case-insensitive substring match and a coarse rank that prefers hits in the annotation.
+ */
+public class EventTextSearchFunctions implements FunctionContributor {
+
+    public static final String MATCH = "event_text_match";
+    public static final String RANK = "event_text_rank";
+
+    private static final String DOCUMENT = "(setweight(to_tsvector('simple', ?1), 'A')"
+            + " || setweight(to_tsvector('simple', ?2), 'B'))";
+    private static final String QUERY = "to_tsquery('simple', array_to_string(array(SELECT quote_literal(lexeme) || ':*'"
+            + " FROM unnest(tsvector_to_array(to_tsvector('simple', CAST(?3 AS TEXT)))) AS lexeme), ' & '))";
+    private static final String CONTAINS = " ILIKE ('%' || ?3 || '%')";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.DOUBLE);
+
+        if (functionContributions.getDialect() instanceof PostgreSQLDialect) {
+            functionContributions.getFunctionRegistry().registerPattern(MATCH,
+                    "(" + DOCUMENT + " @@ " + QUERY + ")", booleanType);
+            functionContributions.getFunctionRegistry().registerPattern(RANK,
+                    "CAST(ts_rank(" + DOCUMENT + ", " + QUERY + ") AS DOUBLE PRECISION)", doubleType);
+        } else {
+            functionContributions.getFunctionRegistry().registerPattern(MATCH,
+                    "(?1" + CONTAINS + " OR ?2" + CONTAINS + ")", booleanType);
+            functionContributions.getFunctionRegistry().registerPattern(RANK,
+                    "(CASE WHEN ?1" + CONTAINS + " THEN 2.0 ELSE 0.0 END"
+                            + " + CASE WHEN ?2" + CONTAINS + " THEN 1.0 ELSE 0.0 END)", doubleType);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.event.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Append-only list of (document, weight) pairs. Documents are added in increasing order and stored as
+ * variable-length deltas, the weight follows each delta as a single varint.
+ */
+final class PostingList {
+
+    private byte[] bytes = new byte[8];
+    private int length;
+    private int lastDoc = -1;
+    private int size;
+
+    void add(int doc, int weight) {
+        if (doc <= lastDoc) {
+            throw new IllegalArgumentException("Documents must be added in increasing order: " + doc);
+        }
+        writeVarInt(doc - lastDoc);
+        writeVarInt(weight);
+        lastDoc = doc;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Marks every document of the list in {@code docs} and adds its weight to {@code scores}.
+     */
+    void collect(BitSet docs, int[] scores) {
+        int position = 0;
+        int doc = -1;
+        while (position < length) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            int weight = 0;
+            shift = 0;
+            do {
+                b = bytes[position++];
+                weight |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            doc += delta;
+            docs.set(doc);
+            scores[doc] += weight;
+        }
+    }
+
+    private void writeVarInt(int value) {
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.event.search;
+
+public enum SearchEngine {
+    DATABASE,
+    MEMORY
+}
@@ -1,9 +1,10 @@
 package ru.practicum.event.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.category.model.Category;
@@ -16,20 +17,18 @@ import ru.practicum.event.model.Location;
 import ru.practicum.event.model.enums.State;
 import ru.practicum.event.model.enums.StateAction;
 import ru.practicum.event.repository.EventRepository;
+import ru.practicum.event.repository.EventSpecifications;
 import ru.practicum.event.repository.LocationRepository;
+import ru.practicum.event.search.EventSearchIndex;
 import ru.practicum.event.service.interfaces.AdminEventService;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.exception.ValidationException;
-import ru.practicum.request.model.enums.RequestStatus;
-import ru.practicum.request.repository.ParticipationRequestRepository;
-import ru.practicum.user.model.User;
-import ru.practicum.user.repository.UserRepository;
+import ru.practicum.util.CursorPage;
+import ru.practicum.util.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 import static ru.practicum.util.Constant.FORMATTER;
 
@@ -38,70 +37,47 @@ import static ru.practicum.util.Constant.FORMATTER;
 @Transactional
 public class AdminEventServiceImpl implements AdminEventService {
 
-    private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final EventSearchIndex eventSearchIndex;
+    private final EventEnricher eventEnricher;
     private final CategoryRepository categoryRepository;
     private final LocationRepository locationRepository;
-    private final ParticipationRequestRepository participationRequestRepository;
 
     private static final Sort SORT_BY_ID_ASC = Sort.by("id").ascending();
     private static final Long MAX_HOURS_BEFORE_START_EVENT = 1L;
 
     @Override
     @Transactional(readOnly = true)
-    public List<EventFullDto> getAllEvents(List<Long> users, List<String> states, List<Long> categories,
-                                           String rangeStart, String rangeEnd, int from, int size) {
+    public CursorPage<EventFullDto> getAllEvents(List<Long> users, List<String> states, List<Long> categories,
+                                                 String rangeStart, String rangeEnd, String cursor, int from, int size) {
 
-        LocalDateTime start = (rangeStart != null)
-                ? LocalDateTime.parse(rangeStart, FORMATTER)
-                : LocalDateTime.of(1970, 1, 1, 0, 0, 0, 0);
+        LocalDateTime start = (rangeStart != null) ? LocalDateTime.parse(rangeStart, FORMATTER) : null;
+        LocalDateTime end = (rangeEnd != null) ? LocalDateTime.parse(rangeEnd, FORMATTER) : null;
 
-        LocalDateTime end = (rangeEnd != null)
-                ? LocalDateTime.parse(rangeEnd, FORMATTER)
-                : LocalDateTime.of(2100, 1, 1, 1, 1, 1, 0);
-
-        if (!start.isBefore(end)) {
+        if (start != null && end != null && !start.isBefore(end)) {
             throw new ValidationException("Ошибка при задании временного промежутка: дата начала должна быть раньше даты окончания.");
         }
 
-        Pageable pageable = PageRequest.of(from / size, size, SORT_BY_ID_ASC);
-
-        List<Long> userIds = (users == null || users.isEmpty())
-                ? userRepository.findAll().stream()
-                .map(User::getId)
-                .toList()
-                : users;
-
-        List<Long> categoryIds = (categories == null || categories.isEmpty())
-                ? categoryRepository.findAll().stream()
-                .map(Category::getId)
-                .toList()
-                : categories;
+        Pageable pageable = PageCursor.pageRequest(cursor, from, size, SORT_BY_ID_ASC);
+        Long afterId = cursor != null ? PageCursor.decode(cursor).id() : null;
 
-        List<State> stateList = (states == null || states.isEmpty())
-                ? List.of(State.PENDING, State.PUBLISHED, State.CANCELED)
+        List<State> stateList = (states == null)
+                ? null
                 : states.stream()
                 .map(State::valueOf)
                 .toList();
 
-        List<Event> events = eventRepository.findByInitiatorIdInAndStateInAndCategoryIdInAndEventDateBetween(
-                userIds, stateList, categoryIds, start, end, pageable).getContent();
-
-        Map<Long, Long> confirmedRequestsMap = events.stream()
-                .collect(Collectors.toMap(
-                        Event::getId,
-                        e -> participationRequestRepository.countByEventIdAndStatus(e.getId(), RequestStatus.CONFIRMED)
-                ));
-
-        List<EventFullDto> eventFullDtos = events.stream()
-                .map(EventMapper::toEventFullDto)
-                .toList();
+        Specification<Event> filters = Specification.where(EventSpecifications.initiatorIn(users))
+                .and(EventSpecifications.stateIn(stateList))
+                .and(EventSpecifications.categoryIn(categories))
+                .and(EventSpecifications.eventDateFrom(start))
+                .and(EventSpecifications.eventDateTo(end));
 
-        eventFullDtos.forEach(dto -> dto.setConfirmedRequests(
-                Math.toIntExact(confirmedRequestsMap.getOrDefault(dto.getId(), 0L))
-        ));
+        Slice<Event> events = eventRepository.findSlice(filters.and(EventSpecifications.idGreaterThan(afterId)), pageable);
 
-        return eventFullDtos;
+        return CursorPage.of(events, eventEnricher.toEventFullDtos(events.getContent()),
+                        event -> PageCursor.ofId(event.getId()))
+                .withTotalCount(() -> eventRepository.count(filters));
     }
 
     @Override
@@ -167,6 +143,7 @@ public class AdminEventServiceImpl implements AdminEventService {
         }
 
         eventFromRepo = eventRepository.save(eventFromRepo);
+        eventSearchIndex.indexAfterCommit(eventFromRepo);
 
         return EventMapper.toEventFullDto(eventFromRepo);
     }
@@ -0,0 +1,59 @@
+package ru.practicum.event.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.event.dto.EventFullDto;
+import ru.practicum.event.dto.EventShortDto;
+import ru.practicum.event.mapper.EventMapper;
+import ru.practicum.event.model.Event;
+import ru.practicum.request.model.enums.RequestStatus;
+import ru.practicum.request.repository.EventRequestCount;
+import ru.practicum.request.repository.ParticipationRequestRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maps a page of events to DTOs, filling the confirmed request counts of the whole page with a single query.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventEnricher {
+
+    private final ParticipationRequestRepository participationRequestRepository;
+
+    public List<EventShortDto> toEventShortDtos(List<Event> events) {
+        Map<Long, Long> confirmedRequests = countConfirmedRequests(events);
+        return events.stream()
+                .map(event -> {
+                    EventShortDto dto = EventMapper.toEventShortDto(event);
+                    dto.setConfirmedRequests(Math.toIntExact(confirmedRequests.getOrDefault(event.getId(), 0L)));
+                    return dto;
+                })
+                .toList();
+    }
+
+    public List<EventFullDto> toEventFullDtos(List<Event> events) {
+        Map<Long, Long> confirmedRequests = countConfirmedRequests(events);
+        return events.stream()
+                .map(event -> {
+                    EventFullDto dto = EventMapper.toEventFullDto(event);
+                    dto.setConfirmedRequests(Math.toIntExact(confirmedRequests.getOrDefault(event.getId(), 0L)));
+                    return dto;
+                })
+                .toList();
+    }
+
+    private Map<Long, Long> countConfirmedRequests(List<Event> events) {
+        if (events.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> eventIds = events.stream()
+                .map(Event::getId)
+                .toList();
+        return participationRequestRepository.countByEventIdInAndStatus(eventIds, RequestStatus.CONFIRMED).stream()
+                .collect(Collectors.toMap(EventRequestCount::getEventId, EventRequestCount::getCount));
+    }
+}
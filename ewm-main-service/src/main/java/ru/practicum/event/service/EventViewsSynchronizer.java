@@ -0,0 +1,96 @@
+package ru.practicum.event.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.StatsClient;
+import ru.practicum.ViewsChangesDto;
+import ru.practicum.event.repository.EventRepository;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@code events.views} in step with the stats server. Each run asks only for the events hit after the last
+ * seen hit id and overwrites their counters with the current value.
+ * <p>
+ * The watermark is kept in memory, so the first run after startup catches up from the beginning. Hit ids are taken
+ * when a row is inserted but become visible only when its batch commits, so a run may see a later id before an
+ * earlier one. Every run therefore starts from the watermark as it was {@code ewm.views-sync.lag-ms} ago rather than
+ * from the latest one: a hit that was still uncommitted then has committed by now, however many hits other writers
+ * inserted meanwhile. The lag has to exceed the longest hit ingest transaction plus the sync interval.
+ * <p>
+ * The end of the first completed catch-up counts as stable at once, so the runs within the first lag after startup do
+ * not rescan the whole history. A hit that was still uncommitted then is picked up with the next hit of its event,
+ * since every run overwrites the counters with their current value.
+ */
+@Slf4j
+@Component
+public class EventViewsSynchronizer {
+
+    private final StatsClient statsClient;
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long lagNanos;
+    private final Deque<Checkpoint> checkpoints = new ArrayDeque<>();
+
+    private long watermark;
+    private long stableWatermark;
+    private boolean caughtUp;
+
+    public EventViewsSynchronizer(StatsClient statsClient,
+                                  EventRepository eventRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${ewm.views-sync.batch-size:1000}") int batchSize,
+                                  @Value("${ewm.views-sync.lag-ms:60000}") long lagMs) {
+        this.statsClient = statsClient;
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lagNanos = TimeUnit.MILLISECONDS.toNanos(lagMs);
+    }
+
+    @Scheduled(fixedDelayString = "${ewm.views-sync.interval-ms:5000}")
+    public synchronized void sync() {
+        long startedAt = System.nanoTime();
+        while (!checkpoints.isEmpty() && startedAt - checkpoints.peekFirst().time() >= lagNanos) {
+            stableWatermark = Math.max(stableWatermark, checkpoints.pollFirst().watermark());
+        }
+        checkpoints.addLast(new Checkpoint(startedAt, watermark));
+
+        long afterId = stableWatermark;
+        while (true) {
+            Optional<ViewsChangesDto> changes = statsClient.getViewsChanges(afterId, batchSize);
+            if (changes.isEmpty()) {
+                log.warn("Не удалось получить изменения просмотров, синхронизация отложена");
+                return;
+            }
+
+            Map<Long, Long> views = changes.get().getViews();
+            if (views != null && !views.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> views.forEach((id, count) ->
+                        eventRepository.updateViews(id, Math.toIntExact(count))));
+            }
+
+            afterId = changes.get().getLastId();
+            watermark = Math.max(watermark, afterId);
+            if (changes.get().getScanned() < batchSize) {
+                if (!caughtUp) {
+                    caughtUp = true;
+                    stableWatermark = watermark;
+                }
+                return;
+            }
+        }
+    }
+
+    private record Checkpoint(long time, long watermark) {
+    }
+}
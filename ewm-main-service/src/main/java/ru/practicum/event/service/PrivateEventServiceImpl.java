@@ -1,8 +1,9 @@
 package ru.practicum.event.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.category.model.Category;
@@ -18,6 +19,7 @@ import ru.practicum.event.model.enums.State;
 import ru.practicum.event.model.enums.StateAction;
 import ru.practicum.event.repository.EventRepository;
 import ru.practicum.event.repository.LocationRepository;
+import ru.practicum.event.search.EventSearchIndex;
 import ru.practicum.event.service.interfaces.PrivateEventService;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
@@ -31,6 +33,8 @@ import ru.practicum.request.model.enums.RequestStatus;
 import ru.practicum.request.repository.ParticipationRequestRepository;
 import ru.practicum.user.model.User;
 import ru.practicum.user.repository.UserRepository;
+import ru.practicum.util.CursorPage;
+import ru.practicum.util.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -42,6 +46,8 @@ import java.util.List;
 public class PrivateEventServiceImpl implements PrivateEventService {
 
     private final EventRepository eventRepository;
+    private final EventSearchIndex eventSearchIndex;
+    private final EventEnricher eventEnricher;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final LocationRepository locationRepository;
@@ -51,15 +57,17 @@ public class PrivateEventServiceImpl implements PrivateEventService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<EventShortDto> getAllEvents(Long userId, int from, int size) {
+    public CursorPage<EventShortDto> getAllEvents(Long userId, String cursor, int from, int size) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден."));
 
-        Pageable pageable = PageRequest.of(from / size, size);
+        Pageable pageable = PageCursor.pageRequest(cursor, from, size, Sort.by("id"));
+        Long afterId = cursor != null ? PageCursor.decode(cursor).id() : 0L;
+        Slice<Event> events = eventRepository.findByInitiatorIdAndIdGreaterThan(userId, afterId, pageable);
 
-        return eventRepository.findByInitiatorId(userId, pageable).getContent().stream()
-                .map(EventMapper::toEventShortDto)
-                .toList();
+        return CursorPage.of(events, eventEnricher.toEventShortDtos(events.getContent()),
+                        event -> PageCursor.ofId(event.getId()))
+                .withTotalCount(() -> eventRepository.countByInitiatorId(userId));
     }
 
     @Override
@@ -166,6 +174,7 @@ public class PrivateEventServiceImpl implements PrivateEventService {
         } else if (updateEventUserRequest.getStateAction() == StateAction.CANCEL_REVIEW) {
             eventFromRepo.setState(State.CANCELED);
         }
+        eventSearchIndex.indexAfterCommit(eventFromRepo);
 
         return EventMapper.toEventFullDto(eventFromRepo);
     }
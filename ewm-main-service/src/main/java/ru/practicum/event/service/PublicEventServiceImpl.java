@@ -2,13 +2,14 @@ package ru.practicum.event.service;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.AsyncStatsClient;
 import ru.practicum.EndpointHitDto;
-import ru.practicum.StatsClient;
+import ru.practicum.StatsHitRecorder;
 import ru.practicum.ViewStatsDto;
 import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventShortDto;
@@ -17,13 +18,17 @@ import ru.practicum.event.model.Event;
 import ru.practicum.event.model.enums.Sort;
 import ru.practicum.event.model.enums.State;
 import ru.practicum.event.repository.EventRepository;
+import ru.practicum.event.search.EventSearchIndex;
 import ru.practicum.event.service.interfaces.PublicEventService;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.exception.ValidationException;
+import ru.practicum.util.CursorPage;
+import ru.practicum.util.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
 
 import static ru.practicum.util.Constant.FORMATTER;
 
@@ -33,15 +38,20 @@ import static ru.practicum.util.Constant.FORMATTER;
 public class PublicEventServiceImpl implements PublicEventService {
 
     private final EventRepository eventRepository;
-    private final StatsClient statsClient;
+    private final EventSearchIndex eventSearchIndex;
+    private final EventEnricher eventEnricher;
+    private final AsyncStatsClient asyncStatsClient;
+    private final StatsHitRecorder statsHitRecorder;
 
     private static final Long PLUS_YEARS_IF_RANGE_END_NULL = 10L;
     private static final String APP_NAME = "ewm-main-service";
+    private static final String VIEWS_RANGE_START = "1970-01-01 00:00:00";
+    private static final String VIEWS_RANGE_END = "2999-12-31 23:59:59";
 
     @Override
-    public List<EventShortDto> getAllEvents(String text, List<Long> categories, Boolean paid, String rangeStart,
-                                            String rangeEnd, boolean onlyAvailable, Sort sort, int from, int size,
-                                            HttpServletRequest request) {
+    public CursorPage<EventShortDto> getAllEvents(String text, List<Long> categories, Boolean paid, String rangeStart,
+                                                  String rangeEnd, boolean onlyAvailable, Sort sort, String cursor,
+                                                  int from, int size, HttpServletRequest request) {
 
         LocalDateTime start = (rangeStart != null)
                 ? LocalDateTime.parse(rangeStart, FORMATTER)
@@ -50,12 +60,13 @@ public class PublicEventServiceImpl implements PublicEventService {
                 ? LocalDateTime.parse(rangeEnd, FORMATTER)
                 : LocalDateTime.now().plusYears(PLUS_YEARS_IF_RANGE_END_NULL);
 
-        Pageable pageable = PageRequest.of(from / size, size);
-
         if (start.isAfter(end) || start.isEqual(end)) {
             throw new ValidationException("Ошибка при задании временного промежутка.");
         }
 
+        PageCursor after = cursor != null ? PageCursor.decode(cursor) : null;
+        Pageable pageable = PageCursor.pageRequest(cursor, from, size);
+
         EndpointHitDto endpointHitDto = EndpointHitDto.builder()
                 .app(APP_NAME)
                 .uri(request.getRequestURI())
@@ -63,77 +74,102 @@ public class PublicEventServiceImpl implements PublicEventService {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        statsClient.createHit(endpointHitDto);
-
-        List<Event> events = eventRepository.searchEvents(
-                        text,
-                        categories,
-                        paid,
-                        start,
-                        end,
-                        onlyAvailable,
-                        pageable)
-                .getContent();
+        statsHitRecorder.record(endpointHitDto);
+
+        List<Event> events;
+        Slice<Event> slice = null;
+        PageCursor next = null;
+        LongSupplier total = () -> eventRepository.countEvents(text, categories, paid, start, end, onlyAvailable);
+        if (eventSearchIndex.supports(text, onlyAvailable, sort)) {
+            EventSearchIndex.SearchResult found = eventSearchIndex.search(text, categories, paid, start, end, sort,
+                    after, from, size);
+            total = found::total;
+            next = found.next();
+            Map<Long, Event> eventsById = new HashMap<>();
+            eventRepository.findByIdIn(found.eventIds()).forEach(event -> eventsById.put(event.getId(), event));
+            events = found.eventIds().stream()
+                    .map(eventsById::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        } else if (sort == Sort.VIEWS) {
+            slice = eventRepository.searchEventsByViews(
+                    text,
+                    categories,
+                    paid,
+                    start,
+                    end,
+                    onlyAvailable,
+                    after != null ? after.intKey() : null,
+                    after != null ? after.id() : null,
+                    pageable);
+            events = slice.getContent();
+        } else if (sort == null && text != null) {
+            slice = eventRepository.searchEventsByRelevance(
+                    text,
+                    categories,
+                    paid,
+                    start,
+                    end,
+                    onlyAvailable,
+                    after != null ? after.doubleKey() : null,
+                    after != null ? after.id() : null,
+                    pageable);
+            events = slice.getContent();
+        } else {
+            slice = eventRepository.searchEvents(
+                    text,
+                    categories,
+                    paid,
+                    start,
+                    end,
+                    onlyAvailable,
+                    after != null ? after.dateTimeKey() : null,
+                    after != null ? after.id() : null,
+                    pageable);
+            events = slice.getContent();
+        }
 
         if (events.isEmpty()) {
-            return new ArrayList<>();
+            return CursorPage.<EventShortDto>last(new ArrayList<>()).withTotalCount(total);
         }
 
         if (events.stream().noneMatch(event -> event.getState() == State.PUBLISHED)) {
             throw new ValidationException("Опубликованные события отсутствуют.");
         }
 
-        List<String> uris = events.stream()
-                .map(event -> "/events/" + event.getId())
-                .toList();
-
-        ResponseEntity<List<ViewStatsDto>> response = statsClient.getStats(rangeStart, rangeEnd, uris, true);
-        List<ViewStatsDto> stats = response.getBody();
+        List<EventShortDto> result = new ArrayList<>(eventEnricher.toEventShortDtos(events));
 
-        List<EventShortDto> result;
-        if (stats != null) {
-            Map<String, Long> viewsMap = stats.stream()
-                    .collect(Collectors.toMap(
-                            ViewStatsDto::getUri,
-                            ViewStatsDto::getHits
-                    ));
-
-            result = new ArrayList<>(events.stream()
-                    .map(event -> {
-                        EventShortDto dto = EventMapper.toEventShortDto(event);
-                        String eventUri = "/events/" + event.getId();
-                        dto.setViews(Math.toIntExact(viewsMap.getOrDefault(eventUri, 0L)));
-                        return dto;
-                    })
-                    .toList());
-        } else {
-            result = new ArrayList<>(events.stream()
-                    .map(event -> {
-                        EventShortDto dto = EventMapper.toEventShortDto(event);
-                        dto.setViews(0);
-                        return dto;
-                    })
-                    .toList());
+        if (sort == Sort.EVENT_DATE) {
+            result.sort(Comparator.comparing(EventShortDto::getEventDate));
         }
 
-        if (sort != null) {
-            if (sort == Sort.EVENT_DATE) {
-                result.sort(Comparator.comparing(EventShortDto::getEventDate));
-            } else if (sort == Sort.VIEWS) {
-                result.sort(Comparator.comparing(EventShortDto::getViews).reversed());
-            }
+        if (slice == null) {
+            return CursorPage.of(result, next).withTotalCount(total);
         }
-
-        return result;
+        return CursorPage.of(slice, result, event -> {
+            if (sort == Sort.VIEWS) {
+                return PageCursor.of(event.getViews(), event.getId());
+            }
+            if (sort == null && text != null) {
+                return PageCursor.of(eventRepository.findTextRank(text, event.getId()), event.getId());
+            }
+            return PageCursor.of(event.getEventDate(), event.getId());
+        }).withTotalCount(total);
     }
 
     @Override
     public EventFullDto getEventById(Long eventId, HttpServletRequest request) {
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new ValidationException("Такого события не существует"));
+        CompletableFuture<ResponseEntity<List<ViewStatsDto>>> statsFuture = asyncStatsClient.getStats(VIEWS_RANGE_START,
+                VIEWS_RANGE_END,
+                List.of(request.getRequestURI()),
+                true);
 
-        if (event.getState() != State.PUBLISHED) {
-            throw new NotFoundException("Такое событие со статусом PUBLISHED не найдено");
+        Event event;
+        try {
+            event = findPublishedEvent(eventId);
+        } catch (RuntimeException e) {
+            statsFuture.cancel(false);
+            throw e;
         }
 
         EndpointHitDto endpointHitDto = EndpointHitDto.builder()
@@ -143,27 +179,30 @@ public class PublicEventServiceImpl implements PublicEventService {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        statsClient.createHit(endpointHitDto);
+        statsHitRecorder.record(endpointHitDto);
 
         EventFullDto eventFullDto = EventMapper.toEventFullDto(event);
 
-        String start = LocalDateTime.now().minusYears(50).format(FORMATTER);
-        String end = LocalDateTime.now().plusYears(50).format(FORMATTER);
-
-        ResponseEntity<List<ViewStatsDto>> response = statsClient.getStats(start,
-                end,
-                List.of(request.getRequestURI()),
-                true);
-
+        ResponseEntity<List<ViewStatsDto>> response = statsFuture.join();
         List<ViewStatsDto> stats = response.getBody();
 
-        Long views = 0L;
-        if (stats != null && !stats.isEmpty()) {
-            views = stats.getFirst().getHits();
+        Integer views = null;
+        if (response.getStatusCode().is2xxSuccessful()) {
+            views = (stats != null && !stats.isEmpty()) ? Math.toIntExact(stats.getFirst().getHits()) : 0;
         }
 
-        eventFullDto.setViews(Math.toIntExact(views));
+        eventFullDto.setViews(views);
 
         return eventFullDto;
     }
-}
\ No newline at end of file
+
+    private Event findPublishedEvent(Long eventId) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new ValidationException("Такого события не существует"));
+
+        if (event.getState() != State.PUBLISHED) {
+            throw new NotFoundException("Такое событие со статусом PUBLISHED не найдено");
+        }
+        return event;
+    }
+}
@@ -7,11 +7,12 @@ import ru.practicum.event.dto.UpdateEventUserRequest;
 import ru.practicum.request.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.request.dto.EventRequestStatusUpdateResult;
 import ru.practicum.request.dto.ParticipationRequestDto;
+import ru.practicum.util.CursorPage;
 
 import java.util.List;
 
 public interface PrivateEventService {
-    List<EventShortDto> getAllEvents(Long userId, int from, int size);
+    CursorPage<EventShortDto> getAllEvents(Long userId, String cursor, int from, int size);
 
     EventFullDto createEvent(Long userId, NewEventDto newEventDto);
 
@@ -4,14 +4,15 @@ import jakarta.servlet.http.HttpServletRequest;
 import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventShortDto;
 import ru.practicum.event.model.enums.Sort;
+import ru.practicum.util.CursorPage;
 
 import java.util.List;
 
 public interface PublicEventService {
-    List<EventShortDto> getAllEvents(String text, List<Long> categories, Boolean paid,
-                                     String rangeStart, String rangeEnd, boolean onlyAvailable,
-                                     Sort sort, int from, int size,
-                                     HttpServletRequest request);
+    CursorPage<EventShortDto> getAllEvents(String text, List<Long> categories, Boolean paid,
+                                           String rangeStart, String rangeEnd, boolean onlyAvailable,
+                                           Sort sort, String cursor, int from, int size,
+                                           HttpServletRequest request);
 
     EventFullDto getEventById(Long eventId, HttpServletRequest request);
 }
\ No newline at end of file
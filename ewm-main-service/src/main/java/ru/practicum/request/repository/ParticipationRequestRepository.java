@@ -1,9 +1,12 @@
 package ru.practicum.request.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.request.model.ParticipationRequest;
 import ru.practicum.request.model.enums.RequestStatus;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ParticipationRequestRepository extends JpaRepository<ParticipationRequest, Long> {
@@ -17,4 +20,12 @@ public interface ParticipationRequestRepository extends JpaRepository<Participat
     List<ParticipationRequest> findRequestByIdIn(List<Long> requestsId);
 
     Long countByEventIdAndStatus(Long eventId, RequestStatus requestStatus);
+
+    @Query("""
+        SELECT r.event.id AS eventId, COUNT(r.id) AS count FROM ParticipationRequest r
+        WHERE r.event.id IN :eventIds AND r.status = :status
+        GROUP BY r.event.id
+    """)
+    List<EventRequestCount> countByEventIdInAndStatus(@Param("eventIds") Collection<Long> eventIds,
+                                                      @Param("status") RequestStatus status);
 }
\ No newline at end of file
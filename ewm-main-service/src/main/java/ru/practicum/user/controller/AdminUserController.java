@@ -1,5 +1,6 @@
 package ru.practicum.user.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -22,9 +23,12 @@ public class AdminUserController {
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     public List<UserDto> getAllUsers(@RequestParam(required = false) List<Long> ids,
+                                     @RequestParam(required = false) String cursor,
                                      @RequestParam(defaultValue = "0") int from,
-                                     @RequestParam(defaultValue = "10") int size) {
-        return userService.getAllUsers(ids, from, size);
+                                     @RequestParam(defaultValue = "10") int size,
+                                     @RequestParam(defaultValue = "false") boolean withTotal,
+                                     HttpServletResponse response) {
+        return userService.getAllUsers(ids, cursor, from, size).writeTo(response, withTotal);
     }
 
     @PostMapping
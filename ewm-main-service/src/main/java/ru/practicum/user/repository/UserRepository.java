@@ -1,7 +1,7 @@
 package ru.practicum.user.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.user.model.User;
 
@@ -9,7 +9,11 @@ import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
-    Page<User> findByIdIn(List<Long> ids, Pageable pageable);
+    Slice<User> findByIdGreaterThan(Long id, Pageable pageable);
+
+    Slice<User> findByIdInAndIdGreaterThan(List<Long> ids, Long id, Pageable pageable);
+
+    long countByIdIn(List<Long> ids);
 
     Optional<User> findByEmail(String email);
 }
\ No newline at end of file
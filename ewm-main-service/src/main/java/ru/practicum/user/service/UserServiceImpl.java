@@ -1,8 +1,9 @@
 package ru.practicum.user.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.comment.model.Comment;
@@ -14,8 +15,11 @@ import ru.practicum.user.mapper.UserMapper;
 import ru.practicum.user.model.User;
 import ru.practicum.user.repository.UserRepository;
 import ru.practicum.user.service.interfaces.UserService;
+import ru.practicum.util.CursorPage;
+import ru.practicum.util.PageCursor;
 
 import java.util.List;
+import java.util.function.LongSupplier;
 
 @Service
 @Transactional
@@ -26,18 +30,21 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserDto> getAllUsers(List<Long> ids, int from, int size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<User> users;
+    public CursorPage<UserDto> getAllUsers(List<Long> ids, String cursor, int from, int size) {
+        Pageable pageable = PageCursor.pageRequest(cursor, from, size, Sort.by("id"));
+        Long afterId = cursor != null ? PageCursor.decode(cursor).id() : 0L;
+        Slice<User> users;
+        LongSupplier total;
         if (ids == null || ids.isEmpty()) {
-            users = userRepository.findAll(pageable).getContent();
+            users = userRepository.findByIdGreaterThan(afterId, pageable);
+            total = userRepository::count;
         } else {
-            users = userRepository.findByIdIn(ids, pageable).getContent();
+            users = userRepository.findByIdInAndIdGreaterThan(ids, afterId, pageable);
+            total = () -> userRepository.countByIdIn(ids);
         }
 
-        return users.stream()
-                .map(UserMapper::toUserDto)
-                .toList();
+        return CursorPage.of(users, users.map(UserMapper::toUserDto).getContent(), user -> PageCursor.ofId(user.getId()))
+                .withTotalCount(total);
     }
 
     @Override
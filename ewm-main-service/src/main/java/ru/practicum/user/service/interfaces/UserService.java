@@ -2,11 +2,12 @@ package ru.practicum.user.service.interfaces;
 
 import ru.practicum.user.dto.NewUserRequest;
 import ru.practicum.user.dto.UserDto;
+import ru.practicum.util.CursorPage;
 
 import java.util.List;
 
 public interface UserService {
-    List<UserDto> getAllUsers(List<Long> ids, int from, int size);
+    CursorPage<UserDto> getAllUsers(List<Long> ids, String cursor, int from, int size);
 
     UserDto createUser(NewUserRequest newUserRequest);
 
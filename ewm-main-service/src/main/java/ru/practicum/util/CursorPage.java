@@ -0,0 +1,53 @@
+package ru.practicum.util;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A page of results together with the token of the next page, {@code null} when this page is the last one.
+ * <p>
+ * The total number of matching rows is not computed with the page: {@code totalCount} is a deferred count query
+ * that only runs for clients asking for it with {@code withTotal=true}.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor, LongSupplier totalCount) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    public static <E, T> CursorPage<T> of(Slice<E> slice, List<T> items, Function<E, PageCursor> cursorOf) {
+        String nextCursor = slice.hasNext() && slice.hasContent()
+                ? cursorOf.apply(slice.getContent().getLast()).encode()
+                : null;
+        return new CursorPage<>(items, nextCursor, null);
+    }
+
+    public static <T> CursorPage<T> of(List<T> items, PageCursor next) {
+        return new CursorPage<>(items, next != null ? next.encode() : null, null);
+    }
+
+    public static <T> CursorPage<T> last(List<T> items) {
+        return new CursorPage<>(items, null, null);
+    }
+
+    public CursorPage<T> withTotalCount(LongSupplier totalCount) {
+        return new CursorPage<>(items, nextCursor, totalCount);
+    }
+
+    /**
+     * Puts the next page token into the {@value #NEXT_CURSOR_HEADER} header and, when {@code withTotal} is set,
+     * runs the count into {@value #TOTAL_COUNT_HEADER}. Returns the items.
+     */
+    public List<T> writeTo(HttpServletResponse response, boolean withTotal) {
+        if (nextCursor != null) {
+            response.setHeader(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        if (withTotal && totalCount != null) {
+            response.setHeader(TOTAL_COUNT_HEADER, String.valueOf(totalCount.getAsLong()));
+        }
+        return items;
+    }
+}
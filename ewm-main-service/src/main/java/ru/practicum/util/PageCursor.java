@@ -0,0 +1,78 @@
+package ru.practicum.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a page: the value of the sort key and the id of that row. Clients get it as an
+ * opaque url-safe token and send it back as {@code cursor} to continue right after that row.
+ */
+public record PageCursor(String key, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static PageCursor ofId(Long id) {
+        return new PageCursor("", id);
+    }
+
+    public static PageCursor of(Object key, Long id) {
+        return new PageCursor(String.valueOf(key), id);
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new PageCursor(value.substring(0, separator), Long.valueOf(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ValidationException("Некорректный курсор страницы.");
+        }
+    }
+
+    /**
+     * First page for a cursor request, the page {@code from / size} otherwise.
+     */
+    public static Pageable pageRequest(String cursor, int from, int size, Sort sort) {
+        return cursor != null ? PageRequest.of(0, size, sort) : PageRequest.of(from / size, size, sort);
+    }
+
+    public static Pageable pageRequest(String cursor, int from, int size) {
+        return pageRequest(cursor, from, size, Sort.unsorted());
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((key + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Integer intKey() {
+        try {
+            return Integer.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Некорректный курсор страницы.");
+        }
+    }
+
+    public Double doubleKey() {
+        try {
+            return Double.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Некорректный курсор страницы.");
+        }
+    }
+
+    public LocalDateTime dateTimeKey() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Некорректный курсор страницы.");
+        }
+    }
+}
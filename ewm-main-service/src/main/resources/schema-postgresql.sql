@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS events_text_search_idx ON events USING GIN (
+(setweight(to_tsvector('simple', annotation), 'A') || setweight(to_tsvector('simple', description), 'B'))
+);
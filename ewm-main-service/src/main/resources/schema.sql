@@ -39,9 +39,12 @@ created_on TIMESTAMP WITHOUT TIME ZONE NOT NULL,
 published_on TIMESTAMP WITHOUT TIME ZONE,
 participant_limit INT NOT NULL,
 paid BOOLEAN NOT NULL,
-request_moderation BOOLEAN NOT NULL
+request_moderation BOOLEAN NOT NULL,
+views INT NOT NULL DEFAULT 0
 );
 
+CREATE INDEX IF NOT EXISTS events_views_id_idx ON events (views DESC, id DESC);
+
 CREATE TABLE IF NOT EXISTS requests(
 id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL ,
 requester_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
@@ -0,0 +1,111 @@
+package ru.practicum.event.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.category.model.Category;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.enums.State;
+import ru.practicum.event.repository.EventRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventSearchIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final EventSearchIndex index = new EventSearchIndex(eventRepository, mock(PlatformTransactionManager.class),
+            SearchEngine.MEMORY);
+
+    @Test
+    void rebuildKeepsServingAndReplaysUpdatesCommittedMeanwhile() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        when(eventRepository.findByStateAndIdGreaterThanOrderByIdAsc(eq(State.PUBLISHED), eq(0L), any()))
+                .thenReturn(List.of(event(1L, "Concert in the park")))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    assertThat(updated.await(5, TimeUnit.SECONDS)).isTrue();
+                    return List.of(event(1L, "Concert in the park"));
+                });
+        index.warmUp();
+
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(index::warmUp);
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        commit(event(2L, "Concert on the river"));
+        commit(event(1L, "Opera in the park"));
+        assertThat(search("concert")).containsExactly(2L);
+        updated.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+
+        assertThat(search("concert")).containsExactly(2L);
+        assertThat(search("park")).containsExactly(1L);
+        assertThat(search("opera")).containsExactly(1L);
+    }
+
+    @Test
+    void searchCountsAllMatchesBeyondThePage() {
+        when(eventRepository.findByStateAndIdGreaterThanOrderByIdAsc(eq(State.PUBLISHED), eq(0L), any()))
+                .thenReturn(List.of(event(1L, "Concert in the park"), event(2L, "Concert on the river"),
+                        event(3L, "Opera in the park")));
+        index.warmUp();
+
+        EventSearchIndex.SearchResult result = index.search("concert", null, null, NOW, null, null, null, 0, 1);
+
+        assertThat(result.eventIds()).hasSize(1);
+        assertThat(result.total()).isEqualTo(2);
+    }
+
+    @Test
+    void cursorContinuesAfterTheLastEventOfThePage() {
+        when(eventRepository.findByStateAndIdGreaterThanOrderByIdAsc(eq(State.PUBLISHED), eq(0L), any()))
+                .thenReturn(List.of(event(1L, "Concert in the park"), event(2L, "Concert on the river"),
+                        event(3L, "Concert and concert again")));
+        index.warmUp();
+
+        EventSearchIndex.SearchResult first = index.search("concert", null, null, NOW, null, null, null, 0, 2);
+        EventSearchIndex.SearchResult second = index.search("concert", null, null, NOW, null, null,
+                first.next(), 0, 2);
+
+        assertThat(first.eventIds()).containsExactly(3L, 2L);
+        assertThat(second.eventIds()).containsExactly(1L);
+        assertThat(second.next()).isNull();
+    }
+
+    private List<Long> search(String text) {
+        return index.search(text, null, null, NOW, null, null, null, 0, 10).eventIds();
+    }
+
+    private void commit(Event event) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.indexAfterCommit(event);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Event event(Long id, String title) {
+        Event event = new Event();
+        event.setId(id);
+        event.setTitle(title);
+        event.setCategory(new Category(1L, "Концерты"));
+        event.setEventDate(NOW.plusDays(7));
+        event.setState(State.PUBLISHED);
+        return event;
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.event.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.category.model.Category;
+import ru.practicum.event.dto.EventFullDto;
+import ru.practicum.event.dto.EventShortDto;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.Location;
+import ru.practicum.event.model.enums.State;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.request.model.ParticipationRequest;
+import ru.practicum.request.model.enums.RequestStatus;
+import ru.practicum.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements behind a page of events: the page itself with its category, initiator and location, plus one
+ * query for the confirmed requests of the whole page, however many events the page holds.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(EventEnricher.class)
+class EventEnricherQueryCountTest {
+
+    private static final int EVENT_COUNT = 10;
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventEnricher eventEnricher;
+
+    private final List<Long> eventIds = new ArrayList<>();
+
+    @BeforeEach
+    void createEvents() {
+        Category category = entityManager.persist(new Category(null, "Концерты"));
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            User initiator = entityManager.persist(new User(null, "Организатор " + i, "org" + i + "@example.com"));
+            Event event = entityManager.persist(event(category, initiator,
+                    entityManager.persist(new Location(null, 55.75f, 37.62f)), i));
+            eventIds.add(event.getId());
+            for (int j = 0; j < i; j++) {
+                User requester = entityManager.persist(new User(null, "Участник", "user" + i + "_" + j + "@example.com"));
+                entityManager.persist(new ParticipationRequest(null, requester, event, RequestStatus.CONFIRMED, NOW));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void publicPageOfEventsTakesTwoStatements() {
+        List<Event> events = eventRepository.searchEvents(null, null, null, NOW, null, false, null, null,
+                PageRequest.of(0, EVENT_COUNT)).getContent();
+        List<EventShortDto> dtos = eventEnricher.toEventShortDtos(events);
+
+        assertThat(dtos).hasSize(EVENT_COUNT);
+        assertThat(dtos).allSatisfy(dto -> {
+            assertThat(dto.getCategory().getName()).isEqualTo("Концерты");
+            assertThat(dto.getInitiator().getName()).startsWith("Организатор");
+        });
+        assertThat(dtos.stream().mapToInt(EventShortDto::getConfirmedRequests).sum())
+                .isEqualTo(EVENT_COUNT * (EVENT_COUNT - 1) / 2);
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void eventsByIdsTakeTwoStatements() {
+        List<EventFullDto> dtos = eventEnricher.toEventFullDtos(eventRepository.findByIdIn(eventIds));
+
+        assertThat(dtos).hasSize(EVENT_COUNT);
+        assertThat(dtos).allSatisfy(dto -> assertThat(dto.getLocation().getLat()).isEqualTo(55.75f));
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static Event event(Category category, User initiator, Location location, int number) {
+        Event event = new Event();
+        event.setTitle("Концерт " + number);
+        event.setAnnotation("Концерт в парке номер " + number);
+        event.setDescription("Большой концерт под открытым небом");
+        event.setCategory(category);
+        event.setInitiator(initiator);
+        event.setLocation(location);
+        event.setConfirmedRequests(number);
+        event.setCreatedOn(NOW.minusDays(1));
+        event.setPublishedOn(NOW.minusHours(1));
+        event.setEventDate(NOW.plusDays(number + 1));
+        event.setParticipantLimit(0);
+        event.setPaid(false);
+        event.setRequestModeration(false);
+        event.setState(State.PUBLISHED);
+        return event;
+    }
+}
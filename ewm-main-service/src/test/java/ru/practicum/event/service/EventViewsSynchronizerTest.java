@@ -0,0 +1,72 @@
+package ru.practicum.event.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.StatsClient;
+import ru.practicum.ViewsChangesDto;
+import ru.practicum.event.repository.EventRepository;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EventViewsSynchronizerTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final long LAG_MS = 60_000;
+
+    private final StatsClient statsClient = mock(StatsClient.class);
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final EventViewsSynchronizer synchronizer = new EventViewsSynchronizer(statsClient, eventRepository,
+            mock(PlatformTransactionManager.class), BATCH_SIZE, LAG_MS);
+
+    /**
+     * The runs within the lag after startup start where the first catch-up ended, and no further: hit 4 may still
+     * have been preceded by an uncommitted one.
+     */
+    @Test
+    void runsAfterStartupContinueFromFirstCatchUp() {
+        when(statsClient.getViewsChanges(0L, BATCH_SIZE)).thenReturn(changes(2, 2, Map.of(1L, 5L)));
+        when(statsClient.getViewsChanges(2L, BATCH_SIZE)).thenReturn(changes(3, 1, Map.of(2L, 1L)));
+        when(statsClient.getViewsChanges(3L, BATCH_SIZE)).thenReturn(changes(4, 1, Map.of(1L, 6L)));
+
+        synchronizer.sync();
+        synchronizer.sync();
+        synchronizer.sync();
+
+        InOrder inOrder = inOrder(statsClient);
+        inOrder.verify(statsClient).getViewsChanges(0L, BATCH_SIZE);
+        inOrder.verify(statsClient).getViewsChanges(2L, BATCH_SIZE);
+        inOrder.verify(statsClient, times(2)).getViewsChanges(3L, BATCH_SIZE);
+        verify(statsClient, times(4)).getViewsChanges(anyLong(), anyInt());
+        verify(eventRepository).updateViews(1L, 5);
+        verify(eventRepository).updateViews(2L, 1);
+        verify(eventRepository, times(2)).updateViews(1L, 6);
+    }
+
+    @Test
+    void failedCatchUpIsRetriedFromTheBeginning() {
+        when(statsClient.getViewsChanges(0L, BATCH_SIZE))
+                .thenReturn(changes(2, 2, Map.of(1L, 5L)))
+                .thenReturn(changes(3, 1, Map.of(1L, 6L)));
+        when(statsClient.getViewsChanges(2L, BATCH_SIZE)).thenReturn(Optional.empty());
+
+        synchronizer.sync();
+        synchronizer.sync();
+
+        verify(statsClient, times(2)).getViewsChanges(0L, BATCH_SIZE);
+        verify(eventRepository).updateViews(1L, 6);
+    }
+
+    private static Optional<ViewsChangesDto> changes(long lastId, int scanned, Map<Long, Long> views) {
+        return Optional.of(new ViewsChangesDto(lastId, scanned, views));
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.event.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import ru.practicum.AsyncStatsClient;
+import ru.practicum.StatsClient;
+import ru.practicum.StatsHitRecorder;
+import ru.practicum.StatsHttpTransport;
+import ru.practicum.StatsWireFormat;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.category.model.Category;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.Location;
+import ru.practicum.event.model.enums.State;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.event.search.EventSearchIndex;
+import ru.practicum.exception.ValidationException;
+import ru.practicum.user.model.User;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+class PublicEventServiceImplTest {
+
+    private static final long DB_LATENCY_MS = 20;
+    private static final long STATS_LATENCY_MS = 20;
+    private static final int WARM_UP_CALLS = 20;
+    private static final int MEASURED_CALLS = 100;
+    private static final String VIEWS_START = "2000-01-01 00:00:00";
+    private static final String VIEWS_END = "2100-01-01 00:00:00";
+
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final StatsClient statsClient = mock(StatsClient.class);
+    private final AsyncStatsClient asyncStatsClient = new AsyncStatsClient(statsClient);
+
+    @AfterEach
+    void shutdown() {
+        asyncStatsClient.shutdown();
+    }
+
+    /**
+     * Abandoning the views lookup of missing events must not count as stats server failures, or a crawler hitting
+     * unknown ids would open the circuit breaker, which here opens on the first failure.
+     */
+    @Test
+    void getEventByIdForMissingEventsKeepsCircuitBreakerClosed() throws IOException {
+        HttpServer statsServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        statsServer.setExecutor(Executors.newCachedThreadPool());
+        statsServer.createContext("/stats", exchange -> {
+            try {
+                Thread.sleep(STATS_LATENCY_MS * 5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(HttpStatus.OK.value(), body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        statsServer.start();
+
+        StatsHttpTransport transport = new StatsHttpTransport(HttpClient.Version.HTTP_2, 1000, 2000);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StatsClient realStatsClient = new StatsClient("http://localhost:" + statsServer.getAddress().getPort(),
+                StatsWireFormat.JSON, 100, 0, 1, 60_000, transport, new RestTemplateBuilder(), meterRegistry);
+        AsyncStatsClient realAsyncStatsClient = new AsyncStatsClient(realStatsClient);
+        when(eventRepository.findById(1L)).thenAnswer(invocation -> {
+            Thread.sleep(DB_LATENCY_MS);
+            return Optional.empty();
+        });
+        try {
+            for (int i = 0; i < 20; i++) {
+                assertThatThrownBy(() -> service(realAsyncStatsClient).getEventById(1L, request()))
+                        .isInstanceOf(ValidationException.class);
+            }
+
+            assertThat(realStatsClient.getStats(VIEWS_START, VIEWS_END, List.of("/events/1"), true).getStatusCode())
+                    .isEqualTo(HttpStatus.OK);
+            assertThat(meterRegistry.get("stats.client.circuit.open").gauge().value()).isZero();
+        } finally {
+            realAsyncStatsClient.shutdown();
+            transport.close();
+            statsServer.stop(0);
+        }
+    }
+
+    /**
+     * Compares getEventById with the stats read overlapping the event lookup against the same calls made one after
+     * another, with {@value #DB_LATENCY_MS} ms of simulated database and {@value #STATS_LATENCY_MS} ms of stats
+     * server latency. Run with {@code mvn test -Dbenchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void getEventByIdBenchmark() {
+        when(statsClient.getStats(any(), any(), any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(STATS_LATENCY_MS);
+            return ResponseEntity.ok(List.of(new ViewStatsDto("ewm-main-service", "/events/1", 5L)));
+        });
+        when(eventRepository.findById(1L)).thenAnswer(invocation -> {
+            Thread.sleep(DB_LATENCY_MS);
+            return Optional.of(publishedEvent());
+        });
+
+        AsyncStatsClient sequentialStatsClient = mock(AsyncStatsClient.class);
+        when(sequentialStatsClient.getStats(any(), any(), any(), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(statsClient.getStats(invocation.getArgument(0),
+                        invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3))));
+
+        double sequentialMs = meanLatencyMs(service(sequentialStatsClient));
+        double concurrentMs = meanLatencyMs(service(asyncStatsClient));
+        log.info("getEventById: последовательно {} мс, параллельно {} мс", String.format("%.1f", sequentialMs),
+                String.format("%.1f", concurrentMs));
+
+        assertThat(concurrentMs).isLessThan(sequentialMs * 0.75);
+    }
+
+    private PublicEventServiceImpl service(AsyncStatsClient statsClient) {
+        return new PublicEventServiceImpl(eventRepository, mock(EventSearchIndex.class), mock(EventEnricher.class),
+                statsClient, mock(StatsHitRecorder.class));
+    }
+
+    private static double meanLatencyMs(PublicEventServiceImpl service) {
+        for (int i = 0; i < WARM_UP_CALLS; i++) {
+            service.getEventById(1L, request());
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            assertThat(service.getEventById(1L, request()).getViews()).isEqualTo(5);
+        }
+        return (System.nanoTime() - started) / 1_000_000.0 / MEASURED_CALLS;
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/events/1");
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+    private static Event publishedEvent() {
+        Event event = new Event();
+        event.setId(1L);
+        event.setTitle("Концерт");
+        event.setAnnotation("Концерт в парке");
+        event.setCategory(new Category(1L, "Концерты"));
+        event.setInitiator(new User(1L, "Иван", "ivan@example.com"));
+        event.setLocation(new Location(1L, 55.75f, 37.62f));
+        event.setEventDate(LocalDateTime.now().plusDays(7));
+        event.setState(State.PUBLISHED);
+        return event;
+    }
+}
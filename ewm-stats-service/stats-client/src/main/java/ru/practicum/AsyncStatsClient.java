@@ -0,0 +1,52 @@
+package ru.practicum;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+@Service
+public class AsyncStatsClient {
+
+    private final StatsClient statsClient;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("stats-client-", 0).factory());
+
+    public AsyncStatsClient(StatsClient statsClient) {
+        this.statsClient = statsClient;
+    }
+
+    public CompletableFuture<ResponseEntity<EndpointHitDto>> createHit(EndpointHitDto endpointHitDto) {
+        return submit(() -> statsClient.createHit(endpointHitDto));
+    }
+
+    public CompletableFuture<ResponseEntity<List<ViewStatsDto>>> getStats(String start, String end, List<String> uris,
+                                                                          Boolean unique) {
+        return submit(() -> statsClient.getStats(start, end, uris, unique));
+    }
+
+    public CompletableFuture<Optional<Map<Long, Long>>> getViews(Collection<Long> eventIds) {
+        return submit(() -> statsClient.getViews(eventIds));
+    }
+
+    /**
+     * Cancelling the returned future only drops the result: the call is not interrupted and runs to completion, so an
+     * abandoned call neither counts as a stats server failure nor fails callers sharing it through the stats cache.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -2,20 +2,34 @@ package ru.practicum;
 
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
 import java.util.Map;
 
 public class BaseClient {
 
     protected final RestTemplate rest;
+    private final MediaType mediaType;
+    @Nullable
+    private final CircuitBreaker circuitBreaker;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, MediaType.APPLICATION_JSON, null);
+    }
+
+    public BaseClient(RestTemplate rest, MediaType mediaType, @Nullable CircuitBreaker circuitBreaker) {
         this.rest = rest;
+        this.mediaType = mediaType;
+        this.circuitBreaker = circuitBreaker;
     }
 
     protected <T> ResponseEntity<T> get(String path,
@@ -33,15 +47,45 @@ public class BaseClient {
                                                         @Nullable Map<String, Object> parameters,
                                                         @Nullable T body,
                                                         ParameterizedTypeReference<R> responseType) {
-        HttpEntity<T> requestEntity = (body == null) ? null : new HttpEntity<>(body);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(mediaType));
+        if (body != null) {
+            headers.setContentType(mediaType);
+        }
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+
+        if (circuitBreaker != null && !circuitBreaker.tryAcquire()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        ResponseEntity<R> response;
         try {
-            ResponseEntity<R> response = (parameters != null)
+            response = (parameters != null)
                     ? rest.exchange(path, method, requestEntity, responseType, parameters)
                     : rest.exchange(path, method, requestEntity, responseType);
-            return prepareResponse(response);
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).build();
+            response = ResponseEntity.status(e.getStatusCode()).build();
+        } catch (ResourceAccessException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // The caller gave up on the call, the stats server did not fail it.
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (RuntimeException e) {
+            if (circuitBreaker != null) {
+                circuitBreaker.onFailure();
+            }
+            throw e;
+        }
+
+        if (circuitBreaker != null) {
+            if (response.getStatusCode().is5xxServerError()) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
         }
+        return prepareResponse(response);
     }
 
     private static <R> ResponseEntity<R> prepareResponse(ResponseEntity<R> response) {
@@ -0,0 +1,52 @@
+package ru.practicum;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row the circuit opens and
+ * calls are rejected for {@code openMs}; then a single trial call is let through and its outcome decides whether
+ * the circuit closes again.
+ */
+public class CircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean open;
+    private boolean trialInProgress;
+
+    public CircuitBreaker(int failureThreshold, long openMs) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openMs * 1_000_000;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (!open) {
+            return true;
+        }
+        if (trialInProgress || System.nanoTime() - openedAt < openNanos) {
+            return false;
+        }
+        trialInProgress = true;
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        open = false;
+        trialInProgress = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (trialInProgress || consecutiveFailures >= failureThreshold) {
+            open = true;
+            openedAt = System.nanoTime();
+        }
+        trialInProgress = false;
+    }
+
+    public synchronized boolean isOpen() {
+        return open;
+    }
+}
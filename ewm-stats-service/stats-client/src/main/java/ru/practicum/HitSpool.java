@@ -0,0 +1,271 @@
+package ru.practicum;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only spool of hits that could not be delivered to the stats server.
+ * <p>
+ * Hits are written into fixed-size memory-mapped segment files. Each segment starts with a header holding
+ * a magic number and the offset of the first record that has not been replayed yet; records are
+ * length-prefixed and a zero length marks the end of written data. A segment is deleted once all of its
+ * records have been replayed. A segment whose header or records cannot be read is renamed to
+ * {@code .corrupt} and left out of replay.
+ */
+@Slf4j
+@Component
+public class HitSpool {
+
+    private static final int MAGIC = 0x45574D53;
+    private static final int READ_OFFSET_POSITION = Integer.BYTES;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean enabled;
+    private final Deque<Path> sealedSegments = new ArrayDeque<>();
+
+    private long nextSequence;
+    private Path activeSegment;
+    private MappedByteBuffer activeBuffer;
+
+    public HitSpool(@Value("${stats-client.spool.dir:${java.io.tmpdir}/ewm-stats-spool}") Path directory,
+                    @Value("${stats-client.spool.segment-size:4194304}") int segmentSize,
+                    @Value("${stats-client.spool.enabled:true}") boolean enabled) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.enabled = enabled;
+        if (enabled) {
+            recover();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized boolean isEmpty() {
+        return sealedSegments.isEmpty() && !activeHasRecords();
+    }
+
+    public synchronized int segmentCount() {
+        return sealedSegments.size() + (activeSegment != null ? 1 : 0);
+    }
+
+    public synchronized boolean append(List<EndpointHitDto> endpointHitDtos) {
+        if (!enabled) {
+            return false;
+        }
+        try {
+            for (EndpointHitDto endpointHitDto : endpointHitDtos) {
+                byte[] record;
+                try {
+                    record = encode(endpointHitDto);
+                } catch (RuntimeException e) {
+                    log.warn("Просмотр {} не может быть записан в спул и отброшен: {}", endpointHitDto, e.getMessage());
+                    continue;
+                }
+                if (record.length + 2 * Integer.BYTES > segmentSize - HEADER_SIZE) {
+                    log.warn("Просмотр uri {} слишком велик для спула и отброшен", endpointHitDto.getUri());
+                    continue;
+                }
+                if (activeBuffer == null || activeBuffer.remaining() < record.length + 2 * Integer.BYTES) {
+                    openNextSegment();
+                }
+                activeBuffer.putInt(record.length);
+                activeBuffer.put(record);
+            }
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Не удалось записать в спул {} просмотров: {}", endpointHitDtos.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    public boolean replay(int batchSize, Predicate<List<EndpointHitDto>> sender) {
+        List<Path> segments;
+        synchronized (this) {
+            if (activeHasRecords()) {
+                sealActiveSegment();
+            }
+            segments = new ArrayList<>(sealedSegments);
+        }
+
+        for (Path segment : segments) {
+            try {
+                if (!replaySegment(segment, batchSize, sender)) {
+                    return false;
+                }
+                synchronized (this) {
+                    sealedSegments.remove(segment);
+                }
+                Files.deleteIfExists(segment);
+            } catch (CorruptSegmentException e) {
+                log.error("Сегмент спула {} повреждён ({}), оставшиеся в нём просмотры не будут отправлены",
+                        segment, e.getMessage());
+                quarantine(segment);
+            } catch (IOException e) {
+                log.warn("Не удалось воспроизвести сегмент спула {}: {}", segment, e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void quarantine(Path segment) {
+        synchronized (this) {
+            sealedSegments.remove(segment);
+        }
+        try {
+            Files.move(segment, segment.resolveSibling(segment.getFileName() + CORRUPT_SUFFIX));
+        } catch (IOException e) {
+            log.error("Не удалось убрать повреждённый сегмент спула {}: {}", segment, e.getMessage());
+        }
+    }
+
+    private boolean replaySegment(Path segment, int batchSize,
+                                  Predicate<List<EndpointHitDto>> sender) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new CorruptSegmentException("неверный заголовок");
+        }
+        int readOffset = buffer.getInt(READ_OFFSET_POSITION);
+        if (readOffset < HEADER_SIZE || readOffset > buffer.limit()) {
+            throw new CorruptSegmentException("смещение чтения " + readOffset + " вне сегмента");
+        }
+
+        buffer.position(readOffset);
+        List<EndpointHitDto> batch = new ArrayList<>(batchSize);
+        while (true) {
+            batch.clear();
+            while (batch.size() < batchSize && buffer.remaining() >= Integer.BYTES) {
+                int length = buffer.getInt(buffer.position());
+                if (length <= 0 || length > buffer.remaining() - Integer.BYTES) {
+                    break;
+                }
+                buffer.position(buffer.position() + Integer.BYTES);
+                byte[] record = new byte[length];
+                buffer.get(record);
+                try {
+                    batch.add(decode(record));
+                } catch (RuntimeException e) {
+                    throw new CorruptSegmentException("нечитаемая запись по смещению "
+                            + (buffer.position() - length - Integer.BYTES));
+                }
+            }
+            if (batch.isEmpty()) {
+                return true;
+            }
+            if (!sender.test(batch)) {
+                return false;
+            }
+            buffer.putInt(READ_OFFSET_POSITION, buffer.position());
+        }
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                        .sorted((a, b) -> Long.compare(sequenceOf(a), sequenceOf(b)))
+                        .forEach(sealedSegments::addLast);
+            }
+            nextSequence = sealedSegments.isEmpty() ? 0 : sequenceOf(sealedSegments.getLast()) + 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть каталог спула просмотров " + directory, e);
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        if (activeSegment != null) {
+            sealActiveSegment();
+        }
+        Path segment = directory.resolve(String.format("%020d%s", nextSequence++, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            activeBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        activeBuffer.putInt(MAGIC);
+        activeBuffer.putInt(HEADER_SIZE);
+        activeSegment = segment;
+    }
+
+    private void sealActiveSegment() {
+        activeBuffer.force();
+        sealedSegments.addLast(activeSegment);
+        activeSegment = null;
+        activeBuffer = null;
+    }
+
+    private boolean activeHasRecords() {
+        return activeBuffer != null && activeBuffer.position() > HEADER_SIZE;
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static byte[] encode(EndpointHitDto endpointHitDto) {
+        byte[] app = endpointHitDto.getApp().getBytes(StandardCharsets.UTF_8);
+        byte[] uri = endpointHitDto.getUri().getBytes(StandardCharsets.UTF_8);
+        byte[] ip = endpointHitDto.getIp().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + 3 * Integer.BYTES + app.length + uri.length + ip.length);
+        buffer.putLong(endpointHitDto.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(app.length).put(app);
+        buffer.putInt(uri.length).put(uri);
+        buffer.putInt(ip.length).put(ip);
+        return buffer.array();
+    }
+
+    private static EndpointHitDto decode(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+        String app = readString(buffer);
+        String uri = readString(buffer);
+        String ip = readString(buffer);
+        return EndpointHitDto.builder()
+                .app(app)
+                .uri(uri)
+                .ip(ip)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class CorruptSegmentException extends IOException {
+        private CorruptSegmentException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,29 +1,71 @@
 package ru.practicum;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class StatsClient extends BaseClient {
 
+    private final SingleFlightCache<StatsKey, ResponseEntity<List<ViewStatsDto>>> statsCache;
+
     @Autowired
     public StatsClient(@Value("${stats-server.url}") String serverUrl,
-                       RestTemplateBuilder builder) {
+                       @Value("${stats-client.wire-format:JSON}") StatsWireFormat wireFormat,
+                       @Value("${stats-client.cache.max-size:10000}") int cacheMaxSize,
+                       @Value("${stats-client.cache.ttl-ms:1000}") long cacheTtlMs,
+                       @Value("${stats-client.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                       @Value("${stats-client.circuit-breaker.open-ms:10000}") long openMs,
+                       StatsHttpTransport transport,
+                       RestTemplateBuilder builder,
+                       MeterRegistry meterRegistry) {
+        this(serverUrl, wireFormat, cacheMaxSize, cacheTtlMs, new CircuitBreaker(failureThreshold, openMs),
+                transport, builder, meterRegistry);
+    }
+
+    private StatsClient(String serverUrl,
+                        StatsWireFormat wireFormat,
+                        int cacheMaxSize,
+                        long cacheTtlMs,
+                        CircuitBreaker circuitBreaker,
+                        StatsHttpTransport transport,
+                        RestTemplateBuilder builder,
+                        MeterRegistry meterRegistry) {
         super(
-                builder
+                withWireFormat(builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(transport::requestFactory)
+                        .build(), wireFormat),
+                wireFormat.getMediaType(),
+                circuitBreaker
         );
+        this.statsCache = new SingleFlightCache<>("stats.client.cache", cacheMaxSize, cacheTtlMs,
+                response -> response.getStatusCode().is2xxSuccessful(), meterRegistry);
+        Gauge.builder("stats.client.circuit.open", circuitBreaker, breaker -> breaker.isOpen() ? 1 : 0)
+                .description("Whether calls to the stats server are currently short-circuited")
+                .register(meterRegistry);
+    }
+
+    private static RestTemplate withWireFormat(RestTemplate restTemplate, StatsWireFormat wireFormat) {
+        if (wireFormat == StatsWireFormat.SMILE) {
+            restTemplate.getMessageConverters().removeIf(MappingJackson2SmileHttpMessageConverter.class::isInstance);
+            restTemplate.getMessageConverters().add(0, StatsWireFormat.smileConverter());
+        }
+        return restTemplate;
     }
 
     public ResponseEntity<EndpointHitDto> createHit(EndpointHitDto endpointHitDto) {
@@ -31,7 +73,46 @@ public class StatsClient extends BaseClient {
         });
     }
 
+    public ResponseEntity<Integer> createHits(List<EndpointHitDto> endpointHitDtos) {
+        return post("/hits/batch", endpointHitDtos, new ParameterizedTypeReference<>() {
+        });
+    }
+
+    public Optional<Map<Long, Long>> getViews(Collection<Long> eventIds) {
+        if (eventIds == null || eventIds.isEmpty()) {
+            return Optional.of(Map.of());
+        }
+
+        ViewsRequestDto viewsRequestDto = ViewsRequestDto.builder()
+                .ids(List.copyOf(eventIds))
+                .build();
+        ResponseEntity<Map<Long, Long>> response = post("/stats/views", viewsRequestDto,
+                new ParameterizedTypeReference<>() {
+                });
+
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(response.getBody());
+    }
+
+    public Optional<ViewsChangesDto> getViewsChanges(long afterId, int limit) {
+        ResponseEntity<ViewsChangesDto> response = get("/stats/views/changes?afterId={afterId}&limit={limit}",
+                Map.of("afterId", afterId, "limit", limit), new ParameterizedTypeReference<>() {
+                });
+
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(response.getBody());
+    }
+
     public ResponseEntity<List<ViewStatsDto>> getStats(String start, String end, List<String> uris, Boolean unique) {
+        StatsKey key = new StatsKey(start, end, uris != null ? Set.copyOf(uris) : Set.of(), Boolean.TRUE.equals(unique));
+        return statsCache.get(key, () -> fetchStats(start, end, uris, unique));
+    }
+
+    private ResponseEntity<List<ViewStatsDto>> fetchStats(String start, String end, List<String> uris, Boolean unique) {
         Map<String, Object> parameters = Map.of(
                 "start", start != null ? start : "",
                 "end", end != null ? end : "",
@@ -43,4 +124,7 @@ public class StatsClient extends BaseClient {
                 new ParameterizedTypeReference<>() {
                 });
     }
-}
\ No newline at end of file
+
+    private record StatsKey(String start, String end, Set<String> uris, boolean unique) {
+    }
+}
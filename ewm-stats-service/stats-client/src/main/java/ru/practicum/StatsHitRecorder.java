@@ -0,0 +1,169 @@
+package ru.practicum;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class StatsHitRecorder {
+
+    private final StatsClient statsClient;
+    private final HitSpool hitSpool;
+    private final BlockingQueue<EndpointHitDto> queue;
+    private final HitOverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final long blockTimeoutMs;
+    private final long replayBackoffMs;
+    private final ScheduledExecutorService flusher;
+    private final Counter droppedHits;
+    private final Counter sentHits;
+
+    private long nextReplayAttempt;
+
+    public StatsHitRecorder(StatsClient statsClient,
+                            HitSpool hitSpool,
+                            MeterRegistry meterRegistry,
+                            @Value("${stats-client.hits.queue-capacity:10000}") int queueCapacity,
+                            @Value("${stats-client.hits.batch-size:500}") int batchSize,
+                            @Value("${stats-client.hits.flush-interval-ms:200}") long flushIntervalMs,
+                            @Value("${stats-client.hits.overflow-policy:DROP}") HitOverflowPolicy overflowPolicy,
+                            @Value("${stats-client.hits.block-timeout-ms:50}") long blockTimeoutMs,
+                            @Value("${stats-client.spool.replay-backoff-ms:5000}") long replayBackoffMs) {
+        this.statsClient = statsClient;
+        this.hitSpool = hitSpool;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.blockTimeoutMs = blockTimeoutMs;
+        this.replayBackoffMs = replayBackoffMs;
+
+        Gauge.builder("stats.client.hits.queue.depth", queue, BlockingQueue::size)
+                .description("Hits waiting to be sent to the stats server")
+                .register(meterRegistry);
+        this.droppedHits = Counter.builder("stats.client.hits.dropped")
+                .description("Hits lost because of queue overflow or send failures")
+                .register(meterRegistry);
+        this.sentHits = Counter.builder("stats.client.hits.sent")
+                .description("Hits accepted by the stats server")
+                .register(meterRegistry);
+        Gauge.builder("stats.client.hits.spool.segments", hitSpool, HitSpool::segmentCount)
+                .description("Spool segments waiting to be replayed to the stats server")
+                .register(meterRegistry);
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-hit-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void record(EndpointHitDto endpointHitDto) {
+        if (queue.offer(endpointHitDto)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> block(endpointHitDto);
+            case SPILL -> spool(List.of(endpointHitDto));
+            default -> droppedHits.increment();
+        }
+    }
+
+    private void block(EndpointHitDto endpointHitDto) {
+        try {
+            if (!queue.offer(endpointHitDto, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                droppedHits.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedHits.increment();
+        }
+    }
+
+    /**
+     * Runs on the scheduled flusher, so it must not throw: an exception would cancel all further flushes.
+     */
+    private void flush() {
+        try {
+            boolean serverAvailable = true;
+            List<EndpointHitDto> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                SendResult result = send(batch);
+                if (result == SendResult.UNAVAILABLE) {
+                    serverAvailable = false;
+                    spool(batch);
+                } else if (result == SendResult.REJECTED) {
+                    droppedHits.increment(batch.size());
+                }
+                batch.clear();
+            }
+
+            if (!serverAvailable) {
+                nextReplayAttempt = System.currentTimeMillis() + replayBackoffMs;
+            } else if (!hitSpool.isEmpty() && System.currentTimeMillis() >= nextReplayAttempt
+                    && !hitSpool.replay(batchSize, this::replaySpooled)) {
+                nextReplayAttempt = System.currentTimeMillis() + replayBackoffMs;
+            }
+        } catch (RuntimeException e) {
+            log.error("Ошибка при отправке накопленных просмотров", e);
+        }
+    }
+
+    private boolean replaySpooled(List<EndpointHitDto> spooled) {
+        SendResult result = send(spooled);
+        if (result == SendResult.REJECTED) {
+            droppedHits.increment(spooled.size());
+            log.warn("Сервер статистики отклонил {} просмотров из спула, они удалены", spooled.size());
+        }
+        return result != SendResult.UNAVAILABLE;
+    }
+
+    private SendResult send(List<EndpointHitDto> batch) {
+        try {
+            ResponseEntity<Integer> response = statsClient.createHits(batch);
+            if (response.getStatusCode().is2xxSuccessful()) {
+                sentHits.increment(batch.size());
+                return SendResult.SENT;
+            }
+            log.warn("Сервер статистики отклонил {} просмотров со статусом {}", batch.size(), response.getStatusCode());
+            return response.getStatusCode().is4xxClientError() ? SendResult.REJECTED : SendResult.UNAVAILABLE;
+        } catch (RuntimeException e) {
+            log.warn("Не удалось отправить {} просмотров на сервер статистики: {}", batch.size(), e.getMessage());
+            return SendResult.UNAVAILABLE;
+        }
+    }
+
+    private void spool(List<EndpointHitDto> batch) {
+        if (!hitSpool.append(batch)) {
+            droppedHits.increment(batch.size());
+        }
+    }
+
+    private enum SendResult {
+        SENT,
+        REJECTED,
+        UNAVAILABLE
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+}
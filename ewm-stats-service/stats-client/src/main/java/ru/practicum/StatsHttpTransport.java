@@ -0,0 +1,43 @@
+package ru.practicum;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * HTTP transport shared by the stats clients. Speaks HTTP/2 by default, over cleartext (h2c) with the stats server,
+ * so concurrent calls are multiplexed over one connection instead of each holding a pooled one. A server without
+ * HTTP/2 is talked to over HTTP/1.1.
+ */
+@Component
+public class StatsHttpTransport {
+
+    private final HttpClient httpClient;
+    private final Duration responseTimeout;
+
+    public StatsHttpTransport(@Value("${stats-client.http.version:HTTP_2}") HttpClient.Version version,
+                              @Value("${stats-client.http.connect-timeout-ms:1000}") long connectTimeoutMs,
+                              @Value("${stats-client.http.response-timeout-ms:2000}") long responseTimeoutMs) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.responseTimeout = Duration.ofMillis(responseTimeoutMs);
+    }
+
+    public ClientHttpRequestFactory requestFactory() {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(responseTimeout);
+        return requestFactory;
+    }
+
+    @PreDestroy
+    public void close() {
+        httpClient.close();
+    }
+}
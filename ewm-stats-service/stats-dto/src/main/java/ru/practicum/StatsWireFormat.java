@@ -0,0 +1,66 @@
+package ru.practicum;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+@Getter
+@RequiredArgsConstructor
+public enum StatsWireFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private final MediaType mediaType;
+
+    public static MappingJackson2SmileHttpMessageConverter smileConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(Jackson2ObjectMapperBuilder.smile()
+                .mixIn(EndpointHitDto.class, EndpointHitDtoSmileMixin.class)
+                .mixIn(ViewsRequestDto.class, ViewsRequestDtoSmileMixin.class)
+                .build());
+    }
+
+    private abstract static class EndpointHitDtoSmileMixin {
+        @JsonSerialize(using = EpochSecondSerializer.class)
+        @JsonDeserialize(using = EpochSecondDeserializer.class)
+        private LocalDateTime timestamp;
+    }
+
+    private abstract static class ViewsRequestDtoSmileMixin {
+        @JsonSerialize(using = EpochSecondSerializer.class)
+        @JsonDeserialize(using = EpochSecondDeserializer.class)
+        private LocalDateTime start;
+
+        @JsonSerialize(using = EpochSecondSerializer.class)
+        @JsonDeserialize(using = EpochSecondDeserializer.class)
+        private LocalDateTime end;
+    }
+
+    static class EpochSecondSerializer extends JsonSerializer<LocalDateTime> {
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeNumber(value.toEpochSecond(ZoneOffset.UTC));
+        }
+    }
+
+    static class EpochSecondDeserializer extends JsonDeserializer<LocalDateTime> {
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return LocalDateTime.ofEpochSecond(parser.getLongValue(), 0, ZoneOffset.UTC);
+        }
+    }
+}
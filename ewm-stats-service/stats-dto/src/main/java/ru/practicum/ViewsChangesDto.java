@@ -0,0 +1,18 @@
+package ru.practicum;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ViewsChangesDto {
+    private Long lastId;
+    private Integer scanned;
+    private Map<Long, Long> views;
+}
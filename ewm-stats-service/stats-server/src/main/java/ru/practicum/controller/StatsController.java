@@ -4,13 +4,19 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.EndpointHitDto;
 import ru.practicum.ViewStatsDto;
+import ru.practicum.ViewsChangesDto;
+import ru.practicum.ViewsRequestDto;
 import ru.practicum.service.interfaces.StatsService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping
@@ -26,12 +32,54 @@ public class StatsController {
         return statsService.createHit(endpointHitDto);
     }
 
+    @PostMapping("/hits/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Integer createHits(@RequestBody List<@Valid EndpointHitDto> endpointHitDtos) {
+        return statsService.createHits(endpointHitDtos);
+    }
+
     @GetMapping("/stats")
     @ResponseStatus(HttpStatus.OK)
     public List<ViewStatsDto> getStats(@RequestParam(required = false) @DateTimeFormat(pattern = DATE_TIME_FORMAT) LocalDateTime start,
                                        @RequestParam(required = false) @DateTimeFormat(pattern = DATE_TIME_FORMAT) LocalDateTime end,
                                        @RequestParam(required = false) List<String> uris,
-                                       @RequestParam(defaultValue = "false") Boolean unique) {
-        return statsService.getStats(start, end, uris, unique);
+                                       @RequestParam(defaultValue = "false") Boolean unique,
+                                       @RequestParam(defaultValue = "false") Boolean exact,
+                                       @RequestParam(required = false) Integer limit,
+                                       @RequestParam(defaultValue = "0") Integer offset) {
+        return statsService.getStats(start, end, uris, unique, exact, limit, offset);
+    }
+
+    @PostMapping("/stats/views")
+    @ResponseStatus(HttpStatus.OK)
+    public Map<Long, Long> getViews(@RequestBody @Valid ViewsRequestDto viewsRequestDto) {
+        return statsService.getViews(viewsRequestDto);
+    }
+
+    @GetMapping("/stats/views/changes")
+    @ResponseStatus(HttpStatus.OK)
+    public ViewsChangesDto getViewsChanges(@RequestParam(defaultValue = "0") Long afterId,
+                                           @RequestParam(defaultValue = "1000") Integer limit,
+                                           @RequestParam(defaultValue = "/events/") String uriPrefix) {
+        return statsService.getViewsChanges(afterId, limit, uriPrefix);
+    }
+
+    @GetMapping("/stats/top")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ViewStatsDto> getTopStats(@RequestParam(defaultValue = "10") Integer k,
+                                          @RequestParam(defaultValue = "60") Integer minutes) {
+        return statsService.getTopStats(k, minutes);
+    }
+
+    @GetMapping("/stats/stream")
+    public ResponseEntity<StreamingResponseBody> streamStats(@RequestParam(required = false) @DateTimeFormat(pattern = DATE_TIME_FORMAT) LocalDateTime start,
+                                                             @RequestParam(required = false) @DateTimeFormat(pattern = DATE_TIME_FORMAT) LocalDateTime end,
+                                                             @RequestParam(required = false) List<String> uris,
+                                                             @RequestParam(defaultValue = "false") Boolean unique,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(defaultValue = "0") Integer offset) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(statsService.streamStats(start, end, uris, unique, limit, offset));
     }
 }
\ No newline at end of file
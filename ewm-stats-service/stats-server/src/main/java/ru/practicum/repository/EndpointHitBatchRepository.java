@@ -0,0 +1,9 @@
+package ru.practicum.repository;
+
+import ru.practicum.model.EndpointHit;
+
+import java.util.List;
+
+public interface EndpointHitBatchRepository {
+    int saveAllInBatch(List<EndpointHit> endpointHits);
+}
@@ -0,0 +1,32 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.model.EndpointHit;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class EndpointHitBatchRepositoryImpl implements EndpointHitBatchRepository {
+
+    private static final String INSERT_HIT = "INSERT INTO statistics (app, uri, ip, time_stamp) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${stats.hits.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    @Override
+    public int saveAllInBatch(List<EndpointHit> endpointHits) {
+        jdbcTemplate.batchUpdate(INSERT_HIT, endpointHits, jdbcBatchSize, (ps, endpointHit) -> {
+            ps.setString(1, endpointHit.getApp());
+            ps.setString(2, endpointHit.getUri());
+            ps.setString(3, endpointHit.getIp());
+            ps.setTimestamp(4, Timestamp.valueOf(endpointHit.getTimestamp()));
+        });
+
+        return endpointHits.size();
+    }
+}
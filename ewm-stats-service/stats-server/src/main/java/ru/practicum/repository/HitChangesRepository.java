@@ -0,0 +1,35 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reads the uris of hits stored after a given hit id, so that clients can refresh only what has changed since
+ * their last sync.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HitChangesRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HitChanges findChangesAfter(long afterId, int limit) {
+        Set<String> uris = new HashSet<>();
+        long[] lastId = {afterId};
+        int[] scanned = {0};
+        jdbcTemplate.query("SELECT id, uri FROM statistics WHERE id > ? ORDER BY id LIMIT ?",
+                rs -> {
+                    uris.add(rs.getString("uri"));
+                    lastId[0] = rs.getLong("id");
+                    scanned[0]++;
+                }, afterId, limit);
+        return new HitChanges(lastId[0], scanned[0], uris);
+    }
+
+    public record HitChanges(long lastId, int scanned, Set<String> uris) {
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.model.EndpointHit;
+import ru.practicum.model.RollupGranularity;
+import ru.practicum.service.StatsRangePlan;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Repository
+@RequiredArgsConstructor
+public class HitRollupRepository {
+
+    private static final String UPSERT_ROLLUP = """
+            INSERT INTO statistics_rollup (granularity, bucket_start, app, uri, hits)
+            VALUES (:granularity, :bucketStart, :app, :uri, :hits)
+            ON CONFLICT (granularity, bucket_start, app, uri)
+            DO UPDATE SET hits = statistics_rollup.hits + EXCLUDED.hits
+            """;
+
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator
+            .comparing(RollupKey::granularity)
+            .thenComparing(RollupKey::bucketStart)
+            .thenComparing(RollupKey::app)
+            .thenComparing(RollupKey::uri);
+
+    static final RowMapper<ViewStatsDto> VIEW_STATS_ROW_MAPPER = (rs, rowNum) ->
+            new ViewStatsDto(rs.getString("app"), rs.getString("uri"), rs.getLong("hits"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void addHits(List<EndpointHit> endpointHits) {
+        Map<RollupKey, Long> counts = new TreeMap<>(KEY_ORDER);
+        for (EndpointHit endpointHit : endpointHits) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                RollupKey key = new RollupKey(granularity, granularity.floor(endpointHit.getTimestamp()),
+                        endpointHit.getApp(), endpointHit.getUri());
+                counts.merge(key, 1L, Long::sum);
+            }
+        }
+
+        SqlParameterSource[] batch = counts.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("granularity", entry.getKey().granularity().name())
+                        .addValue("bucketStart", Timestamp.valueOf(entry.getKey().bucketStart()))
+                        .addValue("app", entry.getKey().app())
+                        .addValue("uri", entry.getKey().uri())
+                        .addValue("hits", entry.getValue()))
+                .toArray(SqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate(UPSERT_ROLLUP, batch);
+    }
+
+    public List<ViewStatsDto> countHits(StatsRangePlan plan, List<String> uris, Integer limit, int offset) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        return jdbcTemplate.query(countHitsQuery(plan, uris, limit, offset, params), params, VIEW_STATS_ROW_MAPPER);
+    }
+
+    static String countHitsQuery(StatsRangePlan plan, List<String> uris, Integer limit, int offset,
+                                 MapSqlParameterSource params) {
+        String uriFilter = StatsRangeConditions.uriCondition(uris, params);
+
+        List<String> parts = new ArrayList<>();
+        if (!plan.getRollupRanges().isEmpty()) {
+            parts.add("SELECT app, uri, SUM(hits) AS hits FROM statistics_rollup WHERE "
+                    + StatsRangeConditions.bucketCondition(plan.getRollupRanges(), params) + uriFilter
+                    + " GROUP BY app, uri");
+        }
+        if (!plan.getRawRanges().isEmpty()) {
+            parts.add("SELECT app, uri, COUNT(*) AS hits FROM statistics WHERE "
+                    + StatsRangeConditions.rawCondition(plan.getRawRanges(), params) + uriFilter
+                    + " GROUP BY app, uri");
+        }
+
+        return "SELECT app, uri, SUM(hits) AS hits FROM (" + String.join(" UNION ALL ", parts) + ") AS h"
+                + " GROUP BY app, uri ORDER BY hits DESC" + StatsRangeConditions.pageClause(limit, offset, params);
+    }
+
+    private record RollupKey(RollupGranularity granularity, LocalDateTime bucketStart, String app, String uri) {
+    }
+}
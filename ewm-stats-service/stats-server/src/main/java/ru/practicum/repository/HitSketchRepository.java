@@ -0,0 +1,164 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.model.EndpointHit;
+import ru.practicum.model.RollupGranularity;
+import ru.practicum.service.StatsRangePlan;
+import ru.practicum.sketch.HyperLogLog;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Repository
+@RequiredArgsConstructor
+public class HitSketchRepository {
+
+    public static final List<RollupGranularity> GRANULARITIES = List.of(RollupGranularity.DAY, RollupGranularity.HOUR);
+
+    private static final int KEYS_PER_STATEMENT = 500;
+
+    private static final String INSERT_NEW_SKETCHES = """
+            INSERT INTO statistics_hll (granularity, bucket_start, app, uri, sketch)
+            VALUES :rows
+            ON CONFLICT (granularity, bucket_start, app, uri) DO NOTHING
+            RETURNING granularity, bucket_start, app, uri
+            """;
+
+    private static final String SELECT_SKETCHES_FOR_UPDATE = """
+            SELECT granularity, bucket_start, app, uri, sketch FROM statistics_hll
+            WHERE (granularity, bucket_start, app, uri) IN (:keys)
+            ORDER BY granularity, bucket_start, app, uri
+            FOR UPDATE
+            """;
+
+    private static final String UPDATE_SKETCH = """
+            UPDATE statistics_hll SET sketch = :sketch
+            WHERE granularity = :granularity AND bucket_start = :bucketStart AND app = :app AND uri = :uri
+            """;
+
+    private static final Comparator<SketchKey> KEY_ORDER = Comparator
+            .comparing((SketchKey key) -> key.granularity().name())
+            .thenComparing(SketchKey::bucketStart)
+            .thenComparing(SketchKey::app)
+            .thenComparing(SketchKey::uri);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void addHits(List<EndpointHit> endpointHits) {
+        TreeMap<SketchKey, HyperLogLog> sketches = new TreeMap<>(KEY_ORDER);
+        for (EndpointHit endpointHit : endpointHits) {
+            for (RollupGranularity granularity : GRANULARITIES) {
+                SketchKey key = new SketchKey(granularity, granularity.floor(endpointHit.getTimestamp()),
+                        endpointHit.getApp(), endpointHit.getUri());
+                sketches.computeIfAbsent(key, k -> new HyperLogLog()).add(endpointHit.getIp());
+            }
+        }
+
+        List<SketchKey> keys = new ArrayList<>(sketches.keySet());
+        for (int from = 0; from < keys.size(); from += KEYS_PER_STATEMENT) {
+            List<SketchKey> chunk = keys.subList(from, Math.min(keys.size(), from + KEYS_PER_STATEMENT));
+            mergeSketches(chunk, sketches);
+        }
+    }
+
+    public List<ViewStatsDto> countUniqueHits(StatsRangePlan plan, List<String> uris) {
+        Map<AppUri, HyperLogLog> sketches = new HashMap<>();
+
+        if (!plan.getRollupRanges().isEmpty()) {
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            String sql = "SELECT app, uri, sketch FROM statistics_hll WHERE "
+                    + StatsRangeConditions.bucketCondition(plan.getRollupRanges(), params)
+                    + StatsRangeConditions.uriCondition(uris, params);
+            jdbcTemplate.query(sql, params, rs -> {
+                sketches.computeIfAbsent(new AppUri(rs.getString("app"), rs.getString("uri")), k -> new HyperLogLog())
+                        .merge(HyperLogLog.fromBytes(rs.getBytes("sketch")));
+            });
+        }
+
+        if (!plan.getRawRanges().isEmpty()) {
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            String sql = "SELECT DISTINCT app, uri, ip FROM statistics WHERE "
+                    + StatsRangeConditions.rawCondition(plan.getRawRanges(), params)
+                    + StatsRangeConditions.uriCondition(uris, params);
+            jdbcTemplate.query(sql, params, rs -> {
+                sketches.computeIfAbsent(new AppUri(rs.getString("app"), rs.getString("uri")), k -> new HyperLogLog())
+                        .add(rs.getString("ip"));
+            });
+        }
+
+        return sketches.entrySet().stream()
+                .map(entry -> new ViewStatsDto(entry.getKey().app(), entry.getKey().uri(), entry.getValue().estimate()))
+                .sorted(Comparator.comparing(ViewStatsDto::getHits).reversed())
+                .toList();
+    }
+
+    /**
+     * Buckets seen for the first time are written with their sketch by a single insert. Only buckets that already
+     * exist are locked and read back, and of those only the ones whose registers actually grow are updated.
+     */
+    private void mergeSketches(List<SketchKey> keys, Map<SketchKey, HyperLogLog> sketches) {
+        List<Object[]> rows = keys.stream()
+                .map(key -> new Object[]{key.granularity().name(), Timestamp.valueOf(key.bucketStart()), key.app(),
+                        key.uri(), sketches.get(key).toBytes()})
+                .toList();
+
+        Set<SketchKey> existing = new HashSet<>(keys);
+        jdbcTemplate.query(INSERT_NEW_SKETCHES, new MapSqlParameterSource("rows", rows), rs -> {
+            existing.remove(toKey(rs));
+        });
+        if (existing.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> tuples = existing.stream()
+                .map(key -> new Object[]{key.granularity().name(), Timestamp.valueOf(key.bucketStart()), key.app(), key.uri()})
+                .toList();
+
+        List<SqlParameterSource> updates = new ArrayList<>(existing.size());
+        jdbcTemplate.query(SELECT_SKETCHES_FOR_UPDATE, new MapSqlParameterSource("keys", tuples), rs -> {
+            SketchKey key = toKey(rs);
+            HyperLogLog sketch = HyperLogLog.fromBytes(rs.getBytes("sketch"));
+            if (sketch.merge(sketches.get(key))) {
+                updates.add(toParams(key).addValue("sketch", sketch.toBytes()));
+            }
+        });
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SKETCH, updates.toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    private static SketchKey toKey(ResultSet rs) throws SQLException {
+        return new SketchKey(RollupGranularity.valueOf(rs.getString("granularity")),
+                rs.getTimestamp("bucket_start").toLocalDateTime(), rs.getString("app"), rs.getString("uri"));
+    }
+
+    private static MapSqlParameterSource toParams(SketchKey key) {
+        return new MapSqlParameterSource()
+                .addValue("granularity", key.granularity().name())
+                .addValue("bucketStart", Timestamp.valueOf(key.bucketStart()))
+                .addValue("app", key.app())
+                .addValue("uri", key.uri());
+    }
+
+    private record SketchKey(RollupGranularity granularity, LocalDateTime bucketStart, String app, String uri) {
+    }
+
+    private record AppUri(String app, String uri) {
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.repository;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import ru.practicum.service.StatsRangePlan;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class StatsRangeConditions {
+
+    static String bucketCondition(List<StatsRangePlan.RollupRange> ranges, MapSqlParameterSource params) {
+        List<String> conditions = new ArrayList<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            StatsRangePlan.RollupRange range = ranges.get(i);
+            conditions.add("(granularity = :g" + i + " AND bucket_start >= :gf" + i + " AND bucket_start < :gt" + i + ")");
+            params.addValue("g" + i, range.granularity().name())
+                    .addValue("gf" + i, Timestamp.valueOf(range.from()))
+                    .addValue("gt" + i, Timestamp.valueOf(range.to()));
+        }
+        return "(" + String.join(" OR ", conditions) + ")";
+    }
+
+    static String rawCondition(List<StatsRangePlan.RawRange> ranges, MapSqlParameterSource params) {
+        List<String> conditions = new ArrayList<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            StatsRangePlan.RawRange range = ranges.get(i);
+            conditions.add("(time_stamp >= :rf" + i + " AND time_stamp " + (range.toInclusive() ? "<=" : "<")
+                    + " :rt" + i + ")");
+            params.addValue("rf" + i, Timestamp.valueOf(range.from()))
+                    .addValue("rt" + i, Timestamp.valueOf(range.to()));
+        }
+        return "(" + String.join(" OR ", conditions) + ")";
+    }
+
+    static String uriCondition(List<String> uris, MapSqlParameterSource params) {
+        if (uris == null || uris.isEmpty()) {
+            return "";
+        }
+        params.addValue("uris", uris);
+        return " AND uri IN (:uris)";
+    }
+
+    static String pageClause(Integer limit, int offset, MapSqlParameterSource params) {
+        String clause = "";
+        if (limit != null) {
+            params.addValue("limit", limit);
+            clause += " LIMIT :limit";
+        }
+        if (offset > 0) {
+            params.addValue("offset", offset);
+            clause += " OFFSET :offset";
+        }
+        return clause;
+    }
+}
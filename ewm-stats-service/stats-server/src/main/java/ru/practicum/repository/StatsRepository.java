@@ -8,17 +8,17 @@ import ru.practicum.model.EndpointHit;
 import java.time.LocalDateTime;
 import java.util.List;
 
-public interface StatsRepository extends JpaRepository<EndpointHit, Long> {
+public interface StatsRepository extends JpaRepository<EndpointHit, Long>, EndpointHitBatchRepository {
 
-    @Query("SELECT new ru.practicum.ViewStatsDto(eh.ip, eh.uri, COUNT(DISTINCT eh.ip))" +
+    @Query("SELECT new ru.practicum.ViewStatsDto(eh.app, eh.uri, COUNT(DISTINCT eh.ip))" +
             " FROM EndpointHit AS eh WHERE eh.timestamp BETWEEN :start AND :end AND (:uris IS NULL OR eh.uri IN :uris) " +
-            " GROUP BY eh.ip, eh.uri" +
+            " GROUP BY eh.app, eh.uri" +
             " ORDER BY COUNT(DISTINCT eh.ip) DESC")
     List<ViewStatsDto> findAllWithUniqueIpTrue(LocalDateTime start, LocalDateTime end, List<String> uris);
 
-    @Query("SELECT new ru.practicum.ViewStatsDto(eh.ip, eh.uri, COUNT(eh.ip))" +
+    @Query("SELECT new ru.practicum.ViewStatsDto(eh.app, eh.uri, COUNT(eh.ip))" +
             " FROM EndpointHit AS eh WHERE eh.timestamp BETWEEN :start AND :end AND (:uris IS NULL OR eh.uri IN :uris)" +
-            " GROUP BY eh.ip, eh.uri" +
+            " GROUP BY eh.app, eh.uri" +
             " ORDER BY COUNT(eh.ip) DESC")
     List<ViewStatsDto> findAllWithUniqueIpFalse(LocalDateTime start, LocalDateTime end, List<String> uris);
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package ru.practicum.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.service.StatsRangePlan;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Repository
+public class StatsStreamRepository {
+
+    private final NamedParameterJdbcTemplate cursorTemplate;
+
+    public StatsStreamRepository(DataSource dataSource, @Value("${stats.stream.fetch-size:1000}") int fetchSize) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        this.cursorTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public void streamHits(StatsRangePlan plan, List<String> uris, Integer limit, int offset,
+                           Consumer<ViewStatsDto> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = HitRollupRepository.countHitsQuery(plan, uris, limit, offset, params);
+        stream(sql, params, consumer);
+    }
+
+    public void streamUniqueHits(LocalDateTime start, LocalDateTime end, List<String> uris, Integer limit, int offset,
+                                 Consumer<ViewStatsDto> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("start", Timestamp.valueOf(start))
+                .addValue("end", Timestamp.valueOf(end));
+        String sql = "SELECT app, uri, COUNT(DISTINCT ip) AS hits FROM statistics"
+                + " WHERE time_stamp BETWEEN :start AND :end" + StatsRangeConditions.uriCondition(uris, params)
+                + " GROUP BY app, uri ORDER BY hits DESC" + StatsRangeConditions.pageClause(limit, offset, params);
+        stream(sql, params, consumer);
+    }
+
+    private void stream(String sql, MapSqlParameterSource params, Consumer<ViewStatsDto> consumer) {
+        cursorTemplate.query(sql, params, rs -> {
+            consumer.accept(HitRollupRepository.VIEW_STATS_ROW_MAPPER.mapRow(rs, rs.getRow()));
+        });
+    }
+}
@@ -0,0 +1,223 @@
+package ru.practicum.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.model.EndpointHit;
+import ru.practicum.repository.HitRollupRepository;
+import ru.practicum.repository.HitSketchRepository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Keeps the {@code statistics} table split into monthly range partitions on {@code time_stamp}.
+ * <p>
+ * Partitions are created ahead of time; hits that land outside of them go to the default partition and are moved
+ * into their own monthly partition on the next run, with inserts held until the new partition is attached. Partitions
+ * older than the retention period are detached or dropped together with their rollups.
+ */
+@Slf4j
+@Component
+public class StatsPartitionManager {
+
+    private static final String TABLE = "statistics";
+    private static final String DEFAULT_PARTITION = "statistics_default";
+    private static final String LEGACY_TABLE = "statistics_legacy";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+    private static final long MAINTENANCE_LOCK = 0x45574D5350L;
+    private static final int REBUILD_CHUNK_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final HitRollupRepository rollupRepository;
+    private final HitSketchRepository sketchRepository;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final RetentionAction retentionAction;
+
+    public StatsPartitionManager(JdbcTemplate jdbcTemplate,
+                                 DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 HitRollupRepository rollupRepository,
+                                 HitSketchRepository sketchRepository,
+                                 @Value("${stats.partitions.months-ahead:3}") int monthsAhead,
+                                 @Value("${stats.partitions.retention-months:0}") int retentionMonths,
+                                 @Value("${stats.partitions.retention-action:DETACH}") RetentionAction retentionAction) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rollupRepository = rollupRepository;
+        this.sketchRepository = sketchRepository;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.retentionAction = retentionAction;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (isLegacyTable()) {
+            migrateLegacyTable();
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+        maintain();
+    }
+
+    @Scheduled(cron = "${stats.partitions.maintenance-cron:0 0 3 * * *}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        YearMonth cutoff = retentionMonths > 0 ? current.minusMonths(retentionMonths) : null;
+
+        TreeSet<YearMonth> months = new TreeSet<>(jdbcTemplate.queryForList(
+                        "SELECT DISTINCT CAST(date_trunc('month', time_stamp) AS DATE) FROM " + DEFAULT_PARTITION,
+                        LocalDate.class).stream()
+                .map(YearMonth::from)
+                .toList());
+        for (int i = 0; i <= monthsAhead; i++) {
+            months.add(current.plusMonths(i));
+        }
+
+        for (YearMonth month : months) {
+            if (cutoff == null || !month.isBefore(cutoff)) {
+                transactionTemplate.executeWithoutResult(status -> createPartition(month));
+            }
+        }
+
+        if (cutoff != null) {
+            transactionTemplate.executeWithoutResult(status -> applyRetention(cutoff));
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        lockMaintenance();
+        String partition = partitionName(month);
+        if (tableExists(partition)) {
+            return;
+        }
+
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+
+        jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        // Inserts wait before tuple routing until the partition is attached, so no hit of the month can land in the
+        // default partition between the move and ATTACH. Partitions are created ahead, so the default one is small.
+        jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN SHARE ROW EXCLUSIVE MODE");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE time_stamp >= ? AND time_stamp < ? RETURNING *) INSERT INTO " + partition
+                + " SELECT * FROM moved", from, to);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + partition
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+
+        log.info("Создана партиция {}, перенесено просмотров: {}", partition, moved);
+    }
+
+    private void applyRetention(YearMonth cutoff) {
+        lockMaintenance();
+        List<String> partitions = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i"
+                + " JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = CAST(? AS regclass)", String.class, TABLE);
+
+        List<String> expired = new ArrayList<>();
+        for (String partition : partitions) {
+            if (!partition.equals(DEFAULT_PARTITION)
+                    && YearMonth.parse(partition.substring(TABLE.length() + 1), PARTITION_SUFFIX).isBefore(cutoff)) {
+                expired.add(partition);
+            }
+        }
+
+        for (String partition : expired) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+            if (retentionAction == RetentionAction.DROP) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            }
+            log.info("Партиция {} удалена из статистики ({})", partition, retentionAction);
+        }
+
+        Timestamp cutoffTime = Timestamp.valueOf(cutoff.atDay(1).atStartOfDay());
+        jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE time_stamp < ?", cutoffTime);
+        jdbcTemplate.update("DELETE FROM statistics_rollup WHERE bucket_start < ?", cutoffTime);
+        jdbcTemplate.update("DELETE FROM statistics_hll WHERE bucket_start < ?", cutoffTime);
+    }
+
+    private void migrateLegacyTable() {
+        log.info("Таблица {} не секционирована, выполняется миграция", TABLE);
+        transactionTemplate.executeWithoutResult(status -> {
+            lockMaintenance();
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + LEGACY_TABLE);
+            runSchemaScript();
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+            jdbcTemplate.update("INSERT INTO " + TABLE + " (id, app, uri, ip, time_stamp)"
+                    + " SELECT id, app, uri, ip, time_stamp FROM " + LEGACY_TABLE);
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence('" + TABLE + "', 'id'),"
+                    + " COALESCE(MAX(id), 0) + 1, false) FROM " + TABLE, Long.class);
+            jdbcTemplate.execute("DROP TABLE " + LEGACY_TABLE);
+            runSchemaScript();
+            rebuildRollups();
+        });
+    }
+
+    private void runSchemaScript() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+    }
+
+    private void rebuildRollups() {
+        jdbcTemplate.execute("TRUNCATE statistics_rollup, statistics_hll");
+
+        JdbcTemplate cursor = new JdbcTemplate(dataSource);
+        cursor.setFetchSize(REBUILD_CHUNK_SIZE);
+        List<EndpointHit> chunk = new ArrayList<>(REBUILD_CHUNK_SIZE);
+        cursor.query("SELECT id, app, uri, ip, time_stamp FROM " + TABLE, rs -> {
+            chunk.add(new EndpointHit(rs.getLong("id"), rs.getString("app"), rs.getString("uri"),
+                    rs.getString("ip"), rs.getTimestamp("time_stamp").toLocalDateTime()));
+            if (chunk.size() == REBUILD_CHUNK_SIZE) {
+                addToRollups(chunk);
+            }
+        });
+        addToRollups(chunk);
+    }
+
+    private void addToRollups(List<EndpointHit> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        rollupRepository.addHits(chunk);
+        sketchRepository.addHits(chunk);
+        chunk.clear();
+    }
+
+    private boolean isLegacyTable() {
+        List<String> kinds = jdbcTemplate.queryForList("SELECT CAST(c.relkind AS VARCHAR) FROM pg_class c"
+                + " WHERE c.oid = to_regclass(?)", String.class, TABLE);
+        return !kinds.isEmpty() && "r".equals(kinds.getFirst());
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    private void lockMaintenance() {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)::text", String.class, MAINTENANCE_LOCK);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return TABLE + "_" + month.format(PARTITION_SUFFIX);
+    }
+
+    public enum RetentionAction {
+        DETACH,
+        DROP
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.service;
+
+import lombok.Getter;
+import ru.practicum.model.RollupGranularity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a requested time range into whole rollup buckets, taking the coarsest granularity that fits,
+ * and the partial edges that still have to be read from raw hits.
+ */
+@Getter
+public class StatsRangePlan {
+
+    private final List<RollupRange> rollupRanges = new ArrayList<>();
+    private final List<RawRange> rawRanges = new ArrayList<>();
+
+    private StatsRangePlan() {
+    }
+
+    public static StatsRangePlan of(LocalDateTime start, LocalDateTime end, List<RollupGranularity> granularities) {
+        StatsRangePlan plan = new StatsRangePlan();
+        plan.split(start, end, true, granularities, 0);
+        return plan;
+    }
+
+    private void split(LocalDateTime from, LocalDateTime to, boolean toInclusive,
+                       List<RollupGranularity> granularities, int level) {
+        if (level == granularities.size()) {
+            rawRanges.add(new RawRange(from, to, toInclusive));
+            return;
+        }
+
+        RollupGranularity granularity = granularities.get(level);
+        LocalDateTime bucketsFrom = granularity.ceil(from);
+        LocalDateTime bucketsTo = granularity.floor(to);
+        if (!bucketsFrom.isBefore(bucketsTo)) {
+            split(from, to, toInclusive, granularities, level + 1);
+            return;
+        }
+
+        rollupRanges.add(new RollupRange(granularity, bucketsFrom, bucketsTo));
+        if (from.isBefore(bucketsFrom)) {
+            split(from, bucketsFrom, false, granularities, level + 1);
+        }
+        if (bucketsTo.isBefore(to) || toInclusive) {
+            split(bucketsTo, to, toInclusive, granularities, level + 1);
+        }
+    }
+
+    public record RollupRange(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+    }
+
+    public record RawRange(LocalDateTime from, LocalDateTime to, boolean toInclusive) {
+    }
+}
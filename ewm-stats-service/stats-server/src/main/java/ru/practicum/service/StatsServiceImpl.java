@@ -1,36 +1,222 @@
 package ru.practicum.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.EndpointHitDto;
 import ru.practicum.ViewStatsDto;
+import ru.practicum.ViewsChangesDto;
+import ru.practicum.ViewsRequestDto;
 import ru.practicum.exception.ValidationException;
 import ru.practicum.mapper.EndpointHitMapper;
 import ru.practicum.model.EndpointHit;
+import ru.practicum.model.RollupGranularity;
+import ru.practicum.repository.HitChangesRepository;
+import ru.practicum.repository.HitRollupRepository;
+import ru.practicum.repository.HitSketchRepository;
 import ru.practicum.repository.StatsRepository;
+import ru.practicum.repository.StatsStreamRepository;
 import ru.practicum.service.interfaces.StatsService;
+import ru.practicum.store.HitStore;
+import ru.practicum.store.TopHitsStore;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class StatsServiceImpl implements StatsService {
 
+    private static final LocalDateTime VIEWS_RANGE_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime VIEWS_RANGE_END = LocalDateTime.of(2999, 12, 31, 23, 59, 59);
+
+    private static final int MAX_ID_DIGITS = 18;
+
     private final StatsRepository repository;
+    private final HitRollupRepository rollupRepository;
+    private final HitSketchRepository sketchRepository;
+    private final HitStore hitStore;
+    private final TopHitsStore topHitsStore;
+    private final StatsStreamRepository streamRepository;
+    private final HitChangesRepository changesRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${stats.hits.max-batch-size:10000}")
+    private int maxBatchSize;
 
     @Override
     public EndpointHitDto createHit(EndpointHitDto endpointHitDto) {
-        EndpointHit endpointHit = EndpointHitMapper.toEndpointHit(endpointHitDto);
-        return EndpointHitMapper.endpointHitToDto(repository.save(endpointHit));
+        EndpointHit endpointHit = repository.save(EndpointHitMapper.toEndpointHit(endpointHitDto));
+        rollupRepository.addHits(List.of(endpointHit));
+        sketchRepository.addHits(List.of(endpointHit));
+        appendAfterCommit(List.of(endpointHit));
+        return EndpointHitMapper.endpointHitToDto(endpointHit);
+    }
+
+    @Override
+    public int createHits(List<EndpointHitDto> endpointHitDtos) {
+        if (endpointHitDtos == null || endpointHitDtos.isEmpty()) {
+            throw new ValidationException("Список просмотров пуст.");
+        }
+
+        if (endpointHitDtos.size() > maxBatchSize) {
+            throw new ValidationException("Размер пакета превышает " + maxBatchSize + " просмотров.");
+        }
+
+        List<EndpointHit> endpointHits = endpointHitDtos.stream()
+                .map(EndpointHitMapper::toEndpointHit)
+                .toList();
+
+        int saved = repository.saveAllInBatch(endpointHits);
+        rollupRepository.addHits(endpointHits);
+        sketchRepository.addHits(endpointHits);
+        appendAfterCommit(endpointHits);
+        return saved;
+    }
+
+    /**
+     * With {@code unique=true} the result is approximate by default: ranges starting before the in-memory window are
+     * answered from HyperLogLog sketches, within about 1.6% of the true number of distinct ips. Pass
+     * {@code exact=true} to count distinct ips over the raw hits instead.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique,
+                                       Boolean exact, Integer limit, Integer offset) {
+        validateRequest(start, end, limit, offset);
+
+        List<ViewStatsDto> stats;
+        if (hitStore.covers(start)) {
+            stats = hitStore.getStats(start, end, uris, unique);
+        } else if (!unique) {
+            StatsRangePlan plan = StatsRangePlan.of(start, end, List.of(RollupGranularity.values()));
+            return rollupRepository.countHits(plan, uris, limit, offset);
+        } else if (exact) {
+            stats = repository.findAllWithUniqueIpTrue(start, end, uris);
+        } else {
+            StatsRangePlan plan = StatsRangePlan.of(start, end, HitSketchRepository.GRANULARITIES);
+            stats = sketchRepository.countUniqueHits(plan, uris);
+        }
+
+        return stats.stream()
+                .skip(offset)
+                .limit(limit != null ? limit : Long.MAX_VALUE)
+                .toList();
+    }
+
+    @Override
+    public StreamingResponseBody streamStats(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                             Boolean unique, Integer limit, Integer offset) {
+        validateRequest(start, end, limit, offset);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        return outputStream -> transactionTemplate.executeWithoutResult(status -> {
+            Consumer<ViewStatsDto> writer = viewStatsDto -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(viewStatsDto));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+
+            if (unique) {
+                streamRepository.streamUniqueHits(start, end, uris, limit, offset, writer);
+            } else {
+                StatsRangePlan plan = StatsRangePlan.of(start, end, List.of(RollupGranularity.values()));
+                streamRepository.streamHits(plan, uris, limit, offset, writer);
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> getViews(ViewsRequestDto viewsRequestDto) {
+        String uriPrefix = viewsRequestDto.getUriPrefix();
+        LocalDateTime start = viewsRequestDto.getStart() != null ? viewsRequestDto.getStart() : VIEWS_RANGE_START;
+        LocalDateTime end = viewsRequestDto.getEnd() != null ? viewsRequestDto.getEnd() : VIEWS_RANGE_END;
+        List<String> uris = viewsRequestDto.getIds().stream()
+                .distinct()
+                .map(id -> uriPrefix + id)
+                .toList();
+
+        Map<Long, Long> views = new HashMap<>();
+        for (ViewStatsDto viewStatsDto : getStats(start, end, uris, viewsRequestDto.getUnique(), false, null, 0)) {
+            Long id = Long.valueOf(viewStatsDto.getUri().substring(uriPrefix.length()));
+            views.merge(id, viewStatsDto.getHits(), Long::sum);
+        }
+        return views;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
+    public ViewsChangesDto getViewsChanges(Long afterId, Integer limit, String uriPrefix) {
+        if (afterId < 0) {
+            throw new ValidationException("Параметр afterId не может быть отрицательным.");
+        }
+
+        if (limit <= 0 || limit > maxBatchSize) {
+            throw new ValidationException("Параметр limit должен быть от 1 до " + maxBatchSize + ".");
+        }
+
+        HitChangesRepository.HitChanges changes = changesRepository.findChangesAfter(afterId, limit);
+
+        List<Long> ids = new ArrayList<>();
+        for (String uri : changes.uris()) {
+            if (uri.startsWith(uriPrefix) && uri.length() > uriPrefix.length()
+                    && uri.length() - uriPrefix.length() <= MAX_ID_DIGITS
+                    && uri.chars().skip(uriPrefix.length()).allMatch(Character::isDigit)) {
+                ids.add(Long.valueOf(uri.substring(uriPrefix.length())));
+            }
+        }
+
+        Map<Long, Long> views = new HashMap<>();
+        if (!ids.isEmpty()) {
+            views.putAll(getViews(ViewsRequestDto.builder()
+                    .ids(ids)
+                    .uriPrefix(uriPrefix)
+                    .build()));
+        }
+
+        return ViewsChangesDto.builder()
+                .lastId(changes.lastId())
+                .scanned(changes.scanned())
+                .views(views)
+                .build();
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ViewStatsDto> getTopStats(Integer k, Integer minutes) {
+        if (k <= 0 || k > topHitsStore.getCapacity()) {
+            throw new ValidationException("Параметр k должен быть от 1 до " + topHitsStore.getCapacity() + ".");
+        }
+
+        if (minutes <= 0 || minutes > topHitsStore.getWindowMinutes()) {
+            throw new ValidationException("Параметр minutes должен быть от 1 до " + topHitsStore.getWindowMinutes() + ".");
+        }
+
+        return topHitsStore.top(k, minutes);
+    }
+
+    private void validateRequest(LocalDateTime start, LocalDateTime end, Integer limit, Integer offset) {
         if (start == null || end == null) {
             throw new ValidationException("Даты не переданы.");
         }
@@ -39,10 +225,22 @@ public class StatsServiceImpl implements StatsService {
             throw new ValidationException("Даты противоречат друг другу!");
         }
 
-        if (unique) {
-            return repository.findAllWithUniqueIpTrue(start, end, uris);
-        } else {
-            return repository.findAllWithUniqueIpFalse(start, end, uris);
+        if (limit != null && limit <= 0) {
+            throw new ValidationException("Параметр limit должен быть положительным.");
+        }
+
+        if (offset < 0) {
+            throw new ValidationException("Параметр offset не может быть отрицательным.");
         }
     }
-}
\ No newline at end of file
+
+    private void appendAfterCommit(List<EndpointHit> endpointHits) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                hitStore.append(endpointHits);
+                topHitsStore.record(endpointHits);
+            }
+        });
+    }
+}
@@ -1,13 +1,29 @@
 package ru.practicum.service.interfaces;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.EndpointHitDto;
 import ru.practicum.ViewStatsDto;
+import ru.practicum.ViewsChangesDto;
+import ru.practicum.ViewsRequestDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface StatsService {
     EndpointHitDto createHit(EndpointHitDto endpointHitDto);
 
-    List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique);
-}
\ No newline at end of file
+    int createHits(List<EndpointHitDto> endpointHitDtos);
+
+    List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique,
+                                Boolean exact, Integer limit, Integer offset);
+
+    StreamingResponseBody streamStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique,
+                                      Integer limit, Integer offset);
+
+    Map<Long, Long> getViews(ViewsRequestDto viewsRequestDto);
+
+    ViewsChangesDto getViewsChanges(Long afterId, Integer limit, String uriPrefix);
+
+    List<ViewStatsDto> getTopStats(Integer k, Integer minutes);
+}
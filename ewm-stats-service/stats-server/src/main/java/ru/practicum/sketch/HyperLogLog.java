@@ -0,0 +1,139 @@
+package ru.practicum.sketch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog distinct counter with 2^12 one-byte registers (4 KiB per sketch).
+ * <p>
+ * The relative standard error of {@link #estimate()} is 1.04 / sqrt(4096), about 1.6%: roughly two thirds of
+ * estimates fall within 1.6% of the true cardinality and 99% within 5%. Small cardinalities are estimated with
+ * linear counting and are exact in practice up to a few hundred values.
+ * <p>
+ * {@link #toBytes()} writes the full register array only once more than {@value #SPARSE_MAX_REGISTERS} registers
+ * are set. Below that the sketch is stored sparse: a {@value #SPARSE_FORMAT} marker byte followed by
+ * (index, rank) triples of the non-empty registers, so a bucket with a single visitor takes 4 bytes instead of 4 KiB.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 12;
+    public static final int REGISTER_COUNT = 1 << PRECISION;
+
+    public static final int SPARSE_MAX_REGISTERS = REGISTER_COUNT / 4;
+
+    private static final byte SPARSE_FORMAT = 1;
+    private static final int SPARSE_ENTRY_SIZE = 3;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTER_COUNT];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes != null && bytes.length == REGISTER_COUNT) {
+            return new HyperLogLog(Arrays.copyOf(bytes, REGISTER_COUNT));
+        }
+        if (bytes == null || bytes.length == 0 || bytes[0] != SPARSE_FORMAT
+                || (bytes.length - 1) % SPARSE_ENTRY_SIZE != 0) {
+            throw new IllegalArgumentException("Некорректный размер HyperLogLog: " + (bytes == null ? 0 : bytes.length));
+        }
+
+        byte[] registers = new byte[REGISTER_COUNT];
+        for (int offset = 1; offset < bytes.length; offset += SPARSE_ENTRY_SIZE) {
+            int index = ((bytes[offset] & 0xff) << Byte.SIZE) | (bytes[offset + 1] & 0xff);
+            if (index >= REGISTER_COUNT) {
+                throw new IllegalArgumentException("Некорректный индекс регистра HyperLogLog: " + index);
+            }
+            registers[index] = bytes[offset + 2];
+        }
+        return new HyperLogLog(registers);
+    }
+
+    public byte[] toBytes() {
+        int used = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                used++;
+            }
+        }
+        if (used > SPARSE_MAX_REGISTERS) {
+            return Arrays.copyOf(registers, REGISTER_COUNT);
+        }
+
+        byte[] bytes = new byte[1 + used * SPARSE_ENTRY_SIZE];
+        bytes[0] = SPARSE_FORMAT;
+        int offset = 1;
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            if (registers[i] != 0) {
+                bytes[offset] = (byte) (i >>> Byte.SIZE);
+                bytes[offset + 1] = (byte) i;
+                bytes[offset + 2] = registers[i];
+                offset += SPARSE_ENTRY_SIZE;
+            }
+        }
+        return bytes;
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Returns {@code false} when {@code other} adds nothing to this sketch, i.e. all its visitors were already counted.
+     */
+    public boolean merge(HyperLogLog other) {
+        boolean changed = false;
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        if (estimate <= 2.5 * REGISTER_COUNT && zeros > 0) {
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.sketch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy-hitters summary holding at most {@code capacity} counters.
+ * <p>
+ * A counter's count never underestimates the true frequency and overestimates it by at most its error, which is
+ * bounded by total weight / capacity, so {@code count - error} is a guaranteed lower bound. Any item with frequency
+ * above that bound is guaranteed to be tracked. Merging keeps both properties by carrying the errors along.
+ */
+public final class SpaceSaving {
+
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> byCount = new TreeSet<>(Comparator
+            .comparingLong((Counter counter) -> counter.count)
+            .thenComparingLong(counter -> counter.sequence));
+    private long sequence;
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void offer(String item, long weight) {
+        offer(item, weight, 0);
+    }
+
+    private void offer(String item, long weight, long error) {
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count += weight;
+            counter.error += error;
+            byCount.add(counter);
+            return;
+        }
+
+        if (counters.size() < capacity) {
+            counter = new Counter(item, weight, error, sequence++);
+        } else {
+            Counter evicted = byCount.pollFirst();
+            counters.remove(evicted.item);
+            counter = new Counter(item, evicted.count + weight, evicted.count + error, sequence++);
+        }
+        counters.put(item, counter);
+        byCount.add(counter);
+    }
+
+    /**
+     * Adds the entries of another summary, e.g. taken with {@link #entries()}.
+     */
+    public void merge(List<Entry> entries) {
+        for (Entry entry : entries) {
+            offer(entry.item(), entry.count(), entry.error());
+        }
+    }
+
+    public List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>(counters.size());
+        for (Counter counter : byCount) {
+            entries.add(new Entry(counter.item, counter.count, counter.error));
+        }
+        return entries;
+    }
+
+    public List<Entry> top(int k) {
+        List<Entry> top = new ArrayList<>(Math.min(k, counters.size()));
+        Iterator<Counter> iterator = byCount.descendingIterator();
+        while (top.size() < k && iterator.hasNext()) {
+            Counter counter = iterator.next();
+            top.add(new Entry(counter.item, counter.count, counter.error));
+        }
+        return top;
+    }
+
+    public void clear() {
+        counters.clear();
+        byCount.clear();
+    }
+
+    public record Entry(String item, long count, long error) {
+    }
+
+    private static final class Counter {
+        private final String item;
+        private final long sequence;
+        private long count;
+        private long error;
+
+        private Counter(String item, long count, long error, long sequence) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+            this.sequence = sequence;
+        }
+    }
+}
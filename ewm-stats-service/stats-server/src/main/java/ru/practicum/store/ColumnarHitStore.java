@@ -0,0 +1,453 @@
+package ru.practicum.store;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.model.EndpointHit;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps hits of the last {@code stats.memory-store.days} days in off-heap column chunks.
+ * <p>
+ * app and uri are dictionary-encoded, IPv4 addresses are stored as their 32-bit value and any other address
+ * (IPv6 included) is dictionary-encoded, timestamps are epoch seconds. The store is filled from the database on
+ * startup and then appended to after each committed insert, so it answers exactly what the database would for
+ * ranges starting inside the retained window.
+ * <p>
+ * Dictionaries only grow while hits are appended. When eviction leaves less than half of the entries of a
+ * dictionary referenced, the retained chunks are copied into a new generation with freshly built dictionaries while
+ * appends go on, the hits appended meanwhile are replayed into it and the generation is swapped in; queries already
+ * running finish on the old one.
+ */
+@Slf4j
+@Component
+public class ColumnarHitStore implements HitStore {
+
+    private static final int CHUNK_ROWS = 1 << 16;
+    private static final int ROW_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES;
+    private static final long IPV4_TAG = 1L << 32;
+    private static final int WARM_UP_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int days;
+
+    private volatile Generation generation = new Generation();
+    private volatile long coveredFrom = Long.MAX_VALUE;
+
+    public ColumnarHitStore(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${stats.memory-store.enabled:true}") boolean enabled,
+                            @Value("${stats.memory-store.days:7}") int days) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.days = days;
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+
+        long from = horizon();
+        JdbcTemplate cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursor.setFetchSize(WARM_UP_FETCH_SIZE);
+        synchronized (this) {
+            transactionTemplate.executeWithoutResult(status -> cursor.query(
+                    "SELECT app, uri, ip, time_stamp FROM statistics WHERE time_stamp >= ?",
+                    rs -> {
+                        appendRow(rs.getString("app"), rs.getString("uri"), rs.getString("ip"),
+                                toEpochSecond(rs.getTimestamp("time_stamp").toLocalDateTime()));
+                    },
+                    Timestamp.valueOf(toLocalDateTime(from))));
+            coveredFrom = from;
+        }
+        log.info("Хранилище просмотров в памяти загружено: {} сегментов с {}", generation.chunks.size(),
+                toLocalDateTime(from));
+    }
+
+    @Scheduled(fixedDelayString = "${stats.memory-store.eviction-interval-ms:3600000}")
+    public void evict() {
+        if (!enabled || coveredFrom == Long.MAX_VALUE) {
+            return;
+        }
+
+        long from = horizon();
+        coveredFrom = Math.max(coveredFrom, from);
+        Generation current;
+        List<Chunk> chunks;
+        int[] sizes;
+        synchronized (this) {
+            current = generation;
+            current.chunks.removeIf(chunk -> chunk != current.activeChunk && chunk.maxTime < from);
+            chunks = List.copyOf(current.chunks);
+            sizes = chunks.stream().mapToInt(chunk -> chunk.size).toArray();
+        }
+
+        Generation compacted = compact(current, chunks, sizes);
+        if (compacted == null) {
+            return;
+        }
+        synchronized (this) {
+            replayAppended(current, sizes, compacted);
+            generation = compacted;
+        }
+        log.info("Словари хранилища просмотров пересобраны: приложений {}, uri {}, адресов {}",
+                compacted.apps.size(), compacted.uris.size(), compacted.ips.size());
+    }
+
+    @Override
+    public boolean covers(LocalDateTime start) {
+        return enabled && coveredFrom <= toEpochSecond(start);
+    }
+
+    @Override
+    public synchronized void append(List<EndpointHit> endpointHits) {
+        if (!enabled) {
+            return;
+        }
+        for (EndpointHit endpointHit : endpointHits) {
+            long time = toEpochSecond(endpointHit.getTimestamp());
+            if (time >= coveredFrom) {
+                appendRow(endpointHit.getApp(), endpointHit.getUri(), endpointHit.getIp(), time);
+            }
+        }
+    }
+
+    @Override
+    public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uriFilter, boolean unique) {
+        long from = toEpochSecond(start);
+        long to = toEpochSecond(end);
+        Generation current = generation;
+        Dictionary apps = current.apps;
+        Dictionary uris = current.uris;
+        int appCount = apps.size();
+        int uriCount = uris.size();
+
+        int[] uriSlots = new int[uriCount];
+        int[] slotUris;
+        if (uriFilter == null || uriFilter.isEmpty()) {
+            for (int i = 0; i < uriCount; i++) {
+                uriSlots[i] = i;
+            }
+            slotUris = uriSlots;
+        } else {
+            Arrays.fill(uriSlots, -1);
+            slotUris = new int[uriFilter.size()];
+            int slotCount = 0;
+            for (String uri : uriFilter) {
+                Integer id = uris.lookup(uri);
+                if (id != null && id < uriCount && uriSlots[id] < 0) {
+                    uriSlots[id] = slotCount;
+                    slotUris[slotCount++] = id;
+                }
+            }
+            slotUris = Arrays.copyOf(slotUris, slotCount);
+        }
+
+        long[] counts = new long[slotUris.length * appCount];
+        LongSet[] distinctIps = unique ? new LongSet[counts.length] : null;
+
+        for (Chunk chunk : current.chunks) {
+            int size = chunk.size;
+            if (size == 0 || chunk.maxTime < from || chunk.minTime > to) {
+                continue;
+            }
+            for (int row = 0; row < size; row++) {
+                long time = chunk.times.get(row);
+                if (time < from || time > to) {
+                    continue;
+                }
+                int uriId = chunk.uriIds.get(row);
+                int appId = chunk.appIds.get(row);
+                if (uriId >= uriCount || appId >= appCount || uriSlots[uriId] < 0) {
+                    continue;
+                }
+                int group = uriSlots[uriId] * appCount + appId;
+                if (unique) {
+                    if (distinctIps[group] == null) {
+                        distinctIps[group] = new LongSet();
+                    }
+                    distinctIps[group].add(chunk.ipKeys.get(row));
+                } else {
+                    counts[group]++;
+                }
+            }
+        }
+
+        List<ViewStatsDto> stats = new ArrayList<>();
+        for (int group = 0; group < counts.length; group++) {
+            long hits = unique ? (distinctIps[group] == null ? 0 : distinctIps[group].size) : counts[group];
+            if (hits > 0) {
+                stats.add(new ViewStatsDto(apps.decode(group % appCount), uris.decode(slotUris[group / appCount]), hits));
+            }
+        }
+        stats.sort(Comparator.comparing(ViewStatsDto::getHits).reversed());
+        return stats;
+    }
+
+    private void appendRow(String app, String uri, String ip, long time) {
+        Generation current = generation;
+        current.add(current.apps.encode(app), current.uris.encode(uri), encodeIp(current.ips, ip), time);
+    }
+
+    /**
+     * Returns a copy of the first {@code sizes} rows of {@code chunks} whose dictionaries hold only the values these
+     * rows reference, or {@code null} while at least half of every dictionary is in use. Runs without the store lock:
+     * appends only add rows and dictionary entries past the ones read here.
+     */
+    private static Generation compact(Generation current, List<Chunk> chunks, int[] sizes) {
+        BitSet liveApps = new BitSet();
+        BitSet liveUris = new BitSet();
+        BitSet liveIps = new BitSet();
+        for (int i = 0; i < chunks.size(); i++) {
+            Chunk chunk = chunks.get(i);
+            for (int row = 0; row < sizes[i]; row++) {
+                liveApps.set(chunk.appIds.get(row));
+                liveUris.set(chunk.uriIds.get(row));
+                long ipKey = chunk.ipKeys.get(row);
+                if ((ipKey & IPV4_TAG) == 0) {
+                    liveIps.set((int) ipKey);
+                }
+            }
+        }
+        if (!current.apps.isSparse(liveApps) && !current.uris.isSparse(liveUris) && !current.ips.isSparse(liveIps)) {
+            return null;
+        }
+
+        Generation compacted = new Generation();
+        int[] appIds = current.apps.copyTo(compacted.apps, liveApps);
+        int[] uriIds = current.uris.copyTo(compacted.uris, liveUris);
+        int[] ipIds = current.ips.copyTo(compacted.ips, liveIps);
+        for (int i = 0; i < chunks.size(); i++) {
+            Chunk chunk = chunks.get(i);
+            for (int row = 0; row < sizes[i]; row++) {
+                long ipKey = chunk.ipKeys.get(row);
+                compacted.add(appIds[chunk.appIds.get(row)], uriIds[chunk.uriIds.get(row)],
+                        (ipKey & IPV4_TAG) != 0 ? ipKey : ipIds[(int) ipKey], chunk.times.get(row));
+            }
+        }
+        return compacted;
+    }
+
+    /**
+     * Copies into {@code compacted} the rows appended to {@code current} after the first {@code sizes} rows of its
+     * chunks were compacted. Chunks are only removed by eviction, so the ones added meanwhile come after them.
+     */
+    private static void replayAppended(Generation current, int[] sizes, Generation compacted) {
+        for (int i = 0; i < current.chunks.size(); i++) {
+            Chunk chunk = current.chunks.get(i);
+            for (int row = i < sizes.length ? sizes[i] : 0; row < chunk.size; row++) {
+                long ipKey = chunk.ipKeys.get(row);
+                compacted.add(compacted.apps.encode(current.apps.decode(chunk.appIds.get(row))),
+                        compacted.uris.encode(current.uris.decode(chunk.uriIds.get(row))),
+                        (ipKey & IPV4_TAG) != 0 ? ipKey : compacted.ips.encode(current.ips.decode((int) ipKey)),
+                        chunk.times.get(row));
+            }
+        }
+    }
+
+    private static long encodeIp(Dictionary ips, String ip) {
+        int value = 0;
+        int octets = 0;
+        int octet = -1;
+        for (int i = 0; i <= ip.length(); i++) {
+            char c = i < ip.length() ? ip.charAt(i) : '.';
+            if (c == '.') {
+                if (octet < 0 || ++octets > 4) {
+                    return ips.encode(ip);
+                }
+                value = (value << 8) | octet;
+                octet = -1;
+            } else if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return ips.encode(ip);
+                }
+            } else {
+                return ips.encode(ip);
+            }
+        }
+        return octets == 4 ? IPV4_TAG | (value & 0xFFFFFFFFL) : ips.encode(ip);
+    }
+
+    private long horizon() {
+        return toEpochSecond(LocalDateTime.now().minusDays(days));
+    }
+
+    private static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    private static final class Generation {
+        private final Dictionary apps = new Dictionary();
+        private final Dictionary uris = new Dictionary();
+        private final Dictionary ips = new Dictionary();
+        private final List<Chunk> chunks = new CopyOnWriteArrayList<>();
+        private Chunk activeChunk;
+
+        private void add(int appId, int uriId, long ipKey, long time) {
+            if (activeChunk == null || activeChunk.size == CHUNK_ROWS) {
+                activeChunk = new Chunk();
+                chunks.add(activeChunk);
+            }
+            activeChunk.add(appId, uriId, ipKey, time);
+        }
+    }
+
+    private static final class Chunk {
+        private final IntBuffer appIds;
+        private final IntBuffer uriIds;
+        private final LongBuffer ipKeys;
+        private final LongBuffer times;
+        private long minTime = Long.MAX_VALUE;
+        private long maxTime = Long.MIN_VALUE;
+        private volatile int size;
+
+        private Chunk() {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_ROWS * ROW_BYTES);
+            int offset = 0;
+            appIds = column(buffer, offset, Integer.BYTES).asIntBuffer();
+            offset += CHUNK_ROWS * Integer.BYTES;
+            uriIds = column(buffer, offset, Integer.BYTES).asIntBuffer();
+            offset += CHUNK_ROWS * Integer.BYTES;
+            ipKeys = column(buffer, offset, Long.BYTES).asLongBuffer();
+            offset += CHUNK_ROWS * Long.BYTES;
+            times = column(buffer, offset, Long.BYTES).asLongBuffer();
+        }
+
+        private void add(int appId, int uriId, long ipKey, long time) {
+            int row = size;
+            appIds.put(row, appId);
+            uriIds.put(row, uriId);
+            ipKeys.put(row, ipKey);
+            times.put(row, time);
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+            size = row + 1;
+        }
+
+        private static ByteBuffer column(ByteBuffer buffer, int offset, int width) {
+            return buffer.slice(offset, CHUNK_ROWS * width).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private volatile String[] values = new String[64];
+        private volatile int size;
+
+        private int encode(String value) {
+            Integer id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            int next = size;
+            if (next == values.length) {
+                values = Arrays.copyOf(values, next * 2);
+            }
+            values[next] = value;
+            ids.put(value, next);
+            size = next + 1;
+            return next;
+        }
+
+        private Integer lookup(String value) {
+            return ids.get(value);
+        }
+
+        private String decode(int id) {
+            return values[id];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private boolean isSparse(BitSet live) {
+            return live.cardinality() * 2 < size;
+        }
+
+        /**
+         * Encodes the {@code live} values into {@code target} and returns the new id of each old one.
+         */
+        private int[] copyTo(Dictionary target, BitSet live) {
+            int[] newIds = new int[size];
+            for (int id = live.nextSetBit(0); id >= 0; id = live.nextSetBit(id + 1)) {
+                newIds[id] = target.encode(values[id]);
+            }
+            return newIds;
+        }
+    }
+
+    /**
+     * Open-addressing set of ip keys, which are never negative.
+     */
+    private static final class LongSet {
+        private static final long EMPTY = -1;
+
+        private long[] keys = newTable(16);
+        private int size;
+
+        private void add(long key) {
+            int mask = keys.length - 1;
+            int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            if (++size * 2 > keys.length) {
+                rehash();
+            }
+        }
+
+        private void rehash() {
+            long[] old = keys;
+            keys = newTable(old.length * 2);
+            size = 0;
+            for (long key : old) {
+                if (key != EMPTY) {
+                    add(key);
+                }
+            }
+        }
+
+        private static long[] newTable(int capacity) {
+            long[] table = new long[capacity];
+            Arrays.fill(table, EMPTY);
+            return table;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.store;
+
+import ru.practicum.ViewStatsDto;
+import ru.practicum.model.EndpointHit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface HitStore {
+    boolean covers(LocalDateTime start);
+
+    void append(List<EndpointHit> endpointHits);
+
+    List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique);
+}
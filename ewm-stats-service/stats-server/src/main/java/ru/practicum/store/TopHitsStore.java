@@ -0,0 +1,115 @@
+package ru.practicum.store;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.ViewStatsDto;
+import ru.practicum.model.EndpointHit;
+import ru.practicum.sketch.SpaceSaving;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Approximate most-viewed (app, uri) pairs over a sliding window, kept as a ring of one-minute
+ * {@link SpaceSaving} summaries indexed by the minute of the hit timestamp.
+ * <p>
+ * Queries copy the summaries of the requested minutes under the lock and merge them outside of it, so recording hits
+ * only waits for the copy. Reported hits are the guaranteed lower bound {@code count - error} of each pair.
+ */
+@Slf4j
+@Component
+public class TopHitsStore {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int windowMinutes;
+    private final int capacity;
+    private final SpaceSaving[] slices;
+    private final long[] sliceMinutes;
+
+    public TopHitsStore(JdbcTemplate jdbcTemplate,
+                        @Value("${stats.top.window-minutes:60}") int windowMinutes,
+                        @Value("${stats.top.capacity:1000}") int capacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.windowMinutes = windowMinutes;
+        this.capacity = capacity;
+        this.slices = new SpaceSaving[windowMinutes];
+        this.sliceMinutes = new long[windowMinutes];
+        for (int i = 0; i < windowMinutes; i++) {
+            slices[i] = new SpaceSaving(capacity);
+            sliceMinutes[i] = Long.MIN_VALUE;
+        }
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        LocalDateTime from = LocalDateTime.now().minusMinutes(windowMinutes);
+        jdbcTemplate.query("SELECT app, uri, date_trunc('minute', time_stamp) AS minute, COUNT(*) AS hits"
+                        + " FROM statistics WHERE time_stamp >= ? GROUP BY app, uri, minute",
+                rs -> {
+                    offer(rs.getString("app"), rs.getString("uri"),
+                            toMinute(rs.getTimestamp("minute").toLocalDateTime()), rs.getLong("hits"));
+                }, Timestamp.valueOf(from));
+    }
+
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void record(List<EndpointHit> endpointHits) {
+        for (EndpointHit endpointHit : endpointHits) {
+            offer(endpointHit.getApp(), endpointHit.getUri(), toMinute(endpointHit.getTimestamp()), 1);
+        }
+    }
+
+    public List<ViewStatsDto> top(int k, int minutes) {
+        long lastMinute = toMinute(LocalDateTime.now());
+        List<List<SpaceSaving.Entry>> snapshots = new ArrayList<>(minutes);
+        synchronized (this) {
+            for (int i = 0; i < windowMinutes; i++) {
+                if (sliceMinutes[i] > lastMinute - minutes && sliceMinutes[i] <= lastMinute) {
+                    snapshots.add(slices[i].entries());
+                }
+            }
+        }
+
+        SpaceSaving merged = new SpaceSaving(capacity);
+        snapshots.forEach(merged::merge);
+        return merged.top(k).stream()
+                .map(entry -> {
+                    int separator = entry.item().indexOf(KEY_SEPARATOR);
+                    return new ViewStatsDto(entry.item().substring(0, separator),
+                            entry.item().substring(separator + 1), entry.count() - entry.error());
+                })
+                .sorted(Comparator.comparing(ViewStatsDto::getHits).reversed())
+                .toList();
+    }
+
+    private synchronized void offer(String app, String uri, long minute, long weight) {
+        int slot = (int) Math.floorMod(minute, (long) windowMinutes);
+        if (sliceMinutes[slot] != minute) {
+            if (sliceMinutes[slot] > minute) {
+                return;
+            }
+            slices[slot].clear();
+            sliceMinutes[slot] = minute;
+        }
+        slices[slot].offer(app + KEY_SEPARATOR + uri, weight);
+    }
+
+    private static long toMinute(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+}
@@ -1,9 +1,30 @@
-DROP TABLE IF EXISTS statistics;
-
 CREATE TABLE IF NOT EXISTS statistics (
-id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
 app VARCHAR(255) NOT NULL,
 uri VARCHAR(255) NOT NULL,
 ip VARCHAR(255) NOT NULL,
-time_stamp TIMESTAMP NOT NULL
-);
\ No newline at end of file
+time_stamp TIMESTAMP NOT NULL,
+PRIMARY KEY (id, time_stamp)
+) PARTITION BY RANGE (time_stamp);
+
+CREATE INDEX IF NOT EXISTS statistics_uri_time_stamp_idx ON statistics (uri, time_stamp) INCLUDE (app, ip);
+
+CREATE INDEX IF NOT EXISTS statistics_time_stamp_idx ON statistics (time_stamp) INCLUDE (app, uri, ip);
+
+CREATE TABLE IF NOT EXISTS statistics_rollup (
+granularity VARCHAR(10) NOT NULL,
+bucket_start TIMESTAMP NOT NULL,
+app VARCHAR(255) NOT NULL,
+uri VARCHAR(255) NOT NULL,
+hits BIGINT NOT NULL,
+PRIMARY KEY (granularity, bucket_start, app, uri)
+);
+
+CREATE TABLE IF NOT EXISTS statistics_hll (
+granularity VARCHAR(10) NOT NULL,
+bucket_start TIMESTAMP NOT NULL,
+app VARCHAR(255) NOT NULL,
+uri VARCHAR(255) NOT NULL,
+sketch BYTEA NOT NULL,
+PRIMARY KEY (granularity, bucket_start, app, uri)
+);
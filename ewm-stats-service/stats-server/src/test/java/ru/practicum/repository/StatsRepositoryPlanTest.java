@@ -0,0 +1,143 @@
+package ru.practicum.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with EXPLAIN that the {@link StatsRepository} queries are answered by index-only scans of the covering
+ * indexes from schema.sql.
+ * <p>
+ * The table is partitioned and the plans are PostgreSQL-specific, so the test starts a PostgreSQL container and needs
+ * Docker. An existing database can be used instead by setting {@code STATS_PLAN_DB_URL}, e.g.
+ * {@code STATS_PLAN_DB_URL=jdbc:postgresql://localhost:5432/stats-db mvn test}, with credentials taken from
+ * {@code STATS_PLAN_DB_USERNAME} and {@code STATS_PLAN_DB_PASSWORD}. The test fills a partition of January 1990 and
+ * drops it afterwards.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.repository.StatsRepositoryPlanTest$SqlRecorder")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatsRepositoryPlanTest {
+
+    private static final String PARTITION = "statistics_y1990m01";
+    private static final LocalDateTime START = LocalDateTime.of(1990, 1, 10, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(1990, 1, 11, 0, 0);
+    private static final String URI = "/events/42";
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16.2");
+
+    @Autowired
+    private StatsRepository statsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void dataSource(DynamicPropertyRegistry registry) {
+        String url = System.getenv("STATS_PLAN_DB_URL");
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("STATS_PLAN_DB_USERNAME", "stats"));
+            registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("STATS_PLAN_DB_PASSWORD", "stats"));
+            return;
+        }
+        POSTGRES.start();
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @BeforeEach
+    void fillPartition() {
+        jdbcTemplate.execute("CREATE TABLE " + PARTITION + " PARTITION OF statistics"
+                + " FOR VALUES FROM ('1990-01-01') TO ('1990-02-01')");
+        jdbcTemplate.execute("""
+                INSERT INTO statistics (app, uri, ip, time_stamp)
+                SELECT 'ewm-main-service', '/events/' || (g % 1000), '10.0.' || (g % 250) || '.' || (g % 199),
+                       TIMESTAMP '1990-01-01' + g * INTERVAL '10 seconds'
+                FROM generate_series(1, 200000) AS g
+                """);
+        jdbcTemplate.execute("VACUUM ANALYZE " + PARTITION);
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    @AfterEach
+    void dropPartition() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + PARTITION);
+    }
+
+    @Test
+    void uniqueHitsOfUrisUseUriIndexOnly() {
+        statsRepository.findAllWithUniqueIpTrue(START, END, List.of(URI));
+
+        assertThat(explain(lastStatsQuery(), URI))
+                .contains("Index Only Scan using " + PARTITION + "_uri_time_stamp_app_ip_idx")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void hitsOfUrisUseUriIndexOnly() {
+        statsRepository.findAllWithUniqueIpFalse(START, END, List.of(URI));
+
+        assertThat(explain(lastStatsQuery(), URI))
+                .contains("Index Only Scan using " + PARTITION + "_uri_time_stamp_app_ip_idx")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void uniqueHitsOfAllUrisUseTimeStampIndexOnly() {
+        statsRepository.findAllWithUniqueIpTrue(START, END, null);
+
+        assertThat(explain(lastStatsQuery(), null))
+                .contains("Index Only Scan using " + PARTITION + "_time_stamp_app_uri_ip_idx")
+                .doesNotContain("Seq Scan");
+    }
+
+    private String lastStatsQuery() {
+        assertThat(SqlRecorder.STATEMENTS).isNotEmpty();
+        return SqlRecorder.STATEMENTS.getLast();
+    }
+
+    /**
+     * Binds the parameters the way Hibernate does for these queries: the range, then the uri list twice, once for the
+     * {@code IS NULL} check and once for {@code IN}.
+     */
+    private String explain(String sql, String uri) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class,
+                Timestamp.valueOf(START), Timestamp.valueOf(END),
+                new SqlParameterValue(Types.VARCHAR, uri), new SqlParameterValue(Types.VARCHAR, uri));
+        return String.join("\n", plan);
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("statistics")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}